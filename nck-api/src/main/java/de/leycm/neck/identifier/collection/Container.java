@@ -0,0 +1,598 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A container for the low 16 bits of the values sharing the same high 16 bits
+ * in an {@link IdentifierBitmap}.
+ * <p>
+ * Sparse chunks are stored as a sorted {@link Array}, dense chunks as a 65536 bit
+ * {@link Bitmap} and chunks made of long consecutive ranges as a {@link Run} list.
+ * Mutating methods return the container to keep using, which may be a converted one.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierBitmap
+ */
+abstract sealed class Container permits Container.Array, Container.Bitmap, Container.Run {
+
+    /**
+     * The largest cardinality stored as {@link Array}, where both representations take 8 KiB.
+     */
+    static final int ARRAY_MAX = 4096;
+
+    static final byte ARRAY = 0;
+    static final byte BITMAP = 1;
+    static final byte RUN = 2;
+
+    private static final int WORDS = 1024;
+
+    abstract int cardinality();
+
+    abstract boolean contains(int value);
+
+    abstract Container add(int value);
+
+    abstract Container remove(int value);
+
+    /**
+     * Returns the smallest value in this container that is at least {@code from}.
+     *
+     * @param from the lower bound, between {@code 0} and {@code 65535}
+     * @return the value, or {@code -1} if there is none
+     */
+    abstract int nextValue(int from);
+
+    abstract void forEach(int high, IntConsumer action);
+
+    abstract Container copy();
+
+    abstract Container runOptimize();
+
+    abstract byte type();
+
+    abstract int serializedSize();
+
+    abstract void write(ByteBuffer buffer);
+
+    /**
+     * Returns this container as {@link Array} or {@link Bitmap}.
+     */
+    Container materialize() {
+        return this;
+    }
+
+    /**
+     * Reads a container written by {@link #write(ByteBuffer)}, checking the invariants the
+     * other methods rely on.
+     *
+     * @throws IllegalArgumentException if the buffer does not contain a valid container
+     */
+    static Container read(final byte type, final ByteBuffer buffer) {
+        return switch (type) {
+            case ARRAY -> {
+                int size = buffer.getChar();
+                if (size == 0 || size > ARRAY_MAX) throw new IllegalArgumentException("Corrupt array size " + size);
+                char[] values = new char[size];
+                buffer.asCharBuffer().get(values);
+                buffer.position(buffer.position() + size * 2);
+                for (int i = 1; i < size; i++)
+                    if (values[i] <= values[i - 1]) throw new IllegalArgumentException("Array values are not sorted");
+                yield new Array(values, size);
+            }
+            case BITMAP -> {
+                long[] words = new long[WORDS];
+                buffer.asLongBuffer().get(words);
+                buffer.position(buffer.position() + WORDS * 8);
+                int cardinality = Bitmap.count(words);
+                if (cardinality <= ARRAY_MAX) throw new IllegalArgumentException("Corrupt bitmap cardinality " + cardinality);
+                yield new Bitmap(words, cardinality);
+            }
+            case RUN -> {
+                int runs = buffer.getChar();
+                if (runs == 0) throw new IllegalArgumentException("Corrupt run count " + runs);
+                char[] starts = new char[runs];
+                char[] lengths = new char[runs];
+                int end = -2;
+                for (int i = 0; i < runs; i++) {
+                    starts[i] = buffer.getChar();
+                    lengths[i] = buffer.getChar();
+                    if (starts[i] <= end + 1) throw new IllegalArgumentException("Runs are not sorted or overlap");
+                    end = starts[i] + lengths[i];
+                    if (end > 0xFFFF) throw new IllegalArgumentException("Run exceeds the container");
+                }
+                yield new Run(starts, lengths, runs);
+            }
+            default -> throw new IllegalArgumentException("Unknown container type " + type);
+        };
+    }
+
+    static Container and(Container a, Container b) {
+        a = a.materialize();
+        b = b.materialize();
+        if (a instanceof Array x) return b instanceof Array y ? Array.intersect(x, y) : Array.filter(x, (Bitmap) b, true);
+        if (b instanceof Array y) return Array.filter(y, (Bitmap) a, true);
+
+        long[] left = ((Bitmap) a).words, right = ((Bitmap) b).words;
+        long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++)
+            words[i] = left[i] & right[i];
+        return Bitmap.shrink(words);
+    }
+
+    static Container or(Container a, Container b) {
+        a = a.materialize();
+        b = b.materialize();
+        if (a instanceof Array x && b instanceof Array y) return Array.union(x, y);
+
+        if (a instanceof Bitmap x && b instanceof Bitmap y) {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < WORDS; i++)
+                words[i] = x.words[i] | y.words[i];
+            return new Bitmap(words, Bitmap.count(words));
+        }
+
+        Bitmap bitmap = (Bitmap) (a instanceof Bitmap ? a : b).copy();
+        Array array = (Array) (a instanceof Array ? a : b);
+        for (int i = 0; i < array.size; i++)
+            bitmap.add(array.values[i]);
+        return bitmap;
+    }
+
+    static Container andNot(Container a, Container b) {
+        a = a.materialize();
+        b = b.materialize();
+        if (a instanceof Array x) return b instanceof Array y ? Array.difference(x, y) : Array.filter(x, (Bitmap) b, false);
+
+        if (b instanceof Array y) {
+            Container result = a.copy();
+            for (int i = 0; i < y.size; i++)
+                result = result.remove(y.values[i]);
+            return result;
+        }
+
+        long[] left = ((Bitmap) a).words, right = ((Bitmap) b).words;
+        long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++)
+            words[i] = left[i] & ~right[i];
+        return Bitmap.shrink(words);
+    }
+
+    /**
+     * Builds a run container from the values of any container.
+     */
+    private static Run toRun(final Container container, final int runs) {
+        char[] starts = new char[runs];
+        char[] lengths = new char[runs];
+        int run = 0;
+
+        for (int value = container.nextValue(0); value >= 0; run++) {
+            int end = value;
+            while (end < 0xFFFF && container.contains(end + 1)) end++;
+            starts[run] = (char) value;
+            lengths[run] = (char) (end - value);
+            value = end < 0xFFFF ? container.nextValue(end + 1) : -1;
+        }
+
+        return new Run(starts, lengths, runs);
+    }
+
+    private static int runSize(final int runs) {
+        return 2 + runs * 4;
+    }
+
+    /**
+     * A sorted array of up to {@link #ARRAY_MAX} values.
+     */
+    static final class Array extends Container {
+
+        private char[] values;
+        private int size;
+
+        Array() {
+            this(new char[4], 0);
+        }
+
+        Array(final char[] values, final int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(final int value) {
+            return Arrays.binarySearch(values, 0, size, (char) value) >= 0;
+        }
+
+        @Override
+        Container add(final int value) {
+            int index = Arrays.binarySearch(values, 0, size, (char) value);
+            if (index >= 0) return this;
+            if (size == ARRAY_MAX) return toBitmap().add(value);
+
+            index = -index - 1;
+            if (size == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, size * 2)));
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = (char) value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(final int value) {
+            int index = Arrays.binarySearch(values, 0, size, (char) value);
+            if (index < 0) return this;
+
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return this;
+        }
+
+        @Override
+        int nextValue(final int from) {
+            int index = Arrays.binarySearch(values, 0, size, (char) from);
+            if (index < 0) index = -index - 1;
+            return index < size ? values[index] : -1;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer action) {
+            for (int i = 0; i < size; i++)
+                action.accept(high | values[i]);
+        }
+
+        @Override
+        Container copy() {
+            return new Array(Arrays.copyOf(values, Math.max(4, size)), size);
+        }
+
+        @Override
+        Container runOptimize() {
+            int runs = 0;
+            for (int i = 0; i < size; i++)
+                if (i == 0 || values[i] != values[i - 1] + 1) runs++;
+            return runSize(runs) < serializedSize() ? toRun(this, runs) : this;
+        }
+
+        @Override
+        byte type() {
+            return ARRAY;
+        }
+
+        @Override
+        int serializedSize() {
+            return 2 + size * 2;
+        }
+
+        @Override
+        void write(final ByteBuffer buffer) {
+            buffer.putChar((char) size);
+            for (int i = 0; i < size; i++)
+                buffer.putChar(values[i]);
+        }
+
+        Bitmap toBitmap() {
+            Bitmap bitmap = new Bitmap();
+            for (int i = 0; i < size; i++)
+                bitmap.add(values[i]);
+            return bitmap;
+        }
+
+        static Array intersect(final Array a, final Array b) {
+            char[] result = new char[Math.min(a.size, b.size)];
+            int i = 0, j = 0, size = 0;
+            while (i < a.size && j < b.size) {
+                char x = a.values[i], y = b.values[j];
+                if (x < y) i++;
+                else if (x > y) j++;
+                else {
+                    result[size++] = x;
+                    i++;
+                    j++;
+                }
+            }
+            return new Array(result, size);
+        }
+
+        static Container union(final Array a, final Array b) {
+            if (a.size + b.size > ARRAY_MAX) {
+                Bitmap bitmap = a.toBitmap();
+                for (int i = 0; i < b.size; i++)
+                    bitmap.add(b.values[i]);
+                return bitmap.cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+            }
+
+            char[] result = new char[a.size + b.size];
+            int i = 0, j = 0, size = 0;
+            while (i < a.size && j < b.size) {
+                char x = a.values[i], y = b.values[j];
+                if (x <= y) {
+                    result[size++] = x;
+                    i++;
+                    if (x == y) j++;
+                } else {
+                    result[size++] = y;
+                    j++;
+                }
+            }
+            while (i < a.size) result[size++] = a.values[i++];
+            while (j < b.size) result[size++] = b.values[j++];
+            return new Array(result, size);
+        }
+
+        static Array difference(final Array a, final Array b) {
+            char[] result = new char[a.size];
+            int i = 0, j = 0, size = 0;
+            while (i < a.size) {
+                char x = a.values[i];
+                while (j < b.size && b.values[j] < x) j++;
+                if (j == b.size || b.values[j] != x) result[size++] = x;
+                i++;
+            }
+            return new Array(result, size);
+        }
+
+        static Array filter(final Array array, final Bitmap bitmap, final boolean keep) {
+            char[] result = new char[array.size];
+            int size = 0;
+            for (int i = 0; i < array.size; i++)
+                if (bitmap.contains(array.values[i]) == keep) result[size++] = array.values[i];
+            return new Array(result, size);
+        }
+    }
+
+    /**
+     * A fixed 65536 bit bitmap for more than {@link #ARRAY_MAX} values.
+     */
+    static final class Bitmap extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        Bitmap() {
+            this(new long[WORDS], 0);
+        }
+
+        Bitmap(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(final int value) {
+            return (words[value >>> 6] & (1L << value)) != 0L;
+        }
+
+        @Override
+        Container add(final int value) {
+            long word = words[value >>> 6];
+            long updated = word | (1L << value);
+            if (updated != word) {
+                words[value >>> 6] = updated;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(final int value) {
+            long word = words[value >>> 6];
+            long updated = word & ~(1L << value);
+            if (updated == word) return this;
+
+            words[value >>> 6] = updated;
+            return --cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        int nextValue(final int from) {
+            int index = from >>> 6;
+            long word = words[index] & (-1L << from);
+            while (word == 0L) {
+                if (++index == WORDS) return -1;
+                word = words[index];
+            }
+            return (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer action) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0L) {
+                    action.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new Bitmap(words.clone(), cardinality);
+        }
+
+        @Override
+        Container runOptimize() {
+            int runs = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                long next = i + 1 < WORDS ? words[i + 1] : 0L;
+                // count run ends, a run crossing into the next word ends there instead
+                runs += Long.bitCount(word & ~(word >>> 1)) - (int) ((word >>> 63) & next & 1L);
+            }
+            return runSize(runs) < serializedSize() ? toRun(this, runs) : this;
+        }
+
+        @Override
+        byte type() {
+            return BITMAP;
+        }
+
+        @Override
+        int serializedSize() {
+            return WORDS * 8;
+        }
+
+        @Override
+        void write(final ByteBuffer buffer) {
+            for (long word : words)
+                buffer.putLong(word);
+        }
+
+        Array toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int size = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0L) {
+                    values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new Array(values, size);
+        }
+
+        static int count(final long[] words) {
+            int cardinality = 0;
+            for (long word : words)
+                cardinality += Long.bitCount(word);
+            return cardinality;
+        }
+
+        static Container shrink(final long[] words) {
+            Bitmap bitmap = new Bitmap(words, count(words));
+            return bitmap.cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+    }
+
+    /**
+     * An immutable list of consecutive value ranges. Mutations convert it back
+     * to an {@link Array} or {@link Bitmap}.
+     */
+    static final class Run extends Container {
+
+        private final char[] starts;
+        private final char[] lengths;
+        private final int runs;
+        private final int cardinality;
+
+        Run(final char[] starts, final char[] lengths, final int runs) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.runs = runs;
+
+            int cardinality = 0;
+            for (int i = 0; i < runs; i++)
+                cardinality += lengths[i] + 1;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(final int value) {
+            int index = Arrays.binarySearch(starts, 0, runs, (char) value);
+            if (index >= 0) return true;
+            index = -index - 2;
+            return index >= 0 && value <= starts[index] + lengths[index];
+        }
+
+        @Override
+        Container add(final int value) {
+            return contains(value) ? this : materialize().copy().add(value);
+        }
+
+        @Override
+        Container remove(final int value) {
+            return contains(value) ? materialize().remove(value) : this;
+        }
+
+        @Override
+        int nextValue(final int from) {
+            int index = Arrays.binarySearch(starts, 0, runs, (char) from);
+            if (index >= 0) return from;
+            index = -index - 2;
+            if (index >= 0 && from <= starts[index] + lengths[index]) return from;
+            return index + 1 < runs ? starts[index + 1] : -1;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer action) {
+            for (int i = 0; i < runs; i++)
+                for (int value = starts[i], end = starts[i] + lengths[i]; value <= end; value++)
+                    action.accept(high | value);
+        }
+
+        @Override
+        Container copy() {
+            return this;
+        }
+
+        @Override
+        Container runOptimize() {
+            return this;
+        }
+
+        @Override
+        byte type() {
+            return RUN;
+        }
+
+        @Override
+        int serializedSize() {
+            return runSize(runs);
+        }
+
+        @Override
+        void write(final ByteBuffer buffer) {
+            buffer.putChar((char) runs);
+            for (int i = 0; i < runs; i++) {
+                buffer.putChar(starts[i]);
+                buffer.putChar(lengths[i]);
+            }
+        }
+
+        @Override
+        Container materialize() {
+            if (cardinality <= ARRAY_MAX) {
+                char[] values = new char[Math.max(4, cardinality)];
+                int size = 0;
+                for (int i = 0; i < runs; i++)
+                    for (int value = starts[i], end = starts[i] + lengths[i]; value <= end; value++)
+                        values[size++] = (char) value;
+                return new Array(values, size);
+            }
+
+            long[] words = new long[WORDS];
+            for (int i = 0; i < runs; i++)
+                for (int value = starts[i], end = starts[i] + lengths[i]; value <= end; value++)
+                    words[value >>> 6] |= 1L << value;
+            return new Bitmap(words, cardinality);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierKey;
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent set that forgets its {@link Identifier}s after a fixed time window, for
+ * idempotency keys and deduplication.
+ * <p>
+ * The window is split into time buckets. Identifiers are stored as {@link IdentifierKey}s in
+ * primitive open-addressing tables, one per bucket, and every slot is stamped with the bucket
+ * it was written in. When time moves on, the oldest bucket is reused for the newest by
+ * changing its stamp, which expires all of its identifiers at once: there are no sweeps, no
+ * scans and no per-identifier objects, and the tables are kept for reuse instead of being
+ * collected. {@link #add(Identifier)} and {@link #contains(Identifier)} probe one table per
+ * bucket, a constant number.
+ * </p>
+ * <p>
+ * An identifier is remembered for at least the window and at most one bucket longer. Memory
+ * grows with the number of identifiers added per window, at about 40 bytes each, and shrinks
+ * again when the rate drops. String identifiers, and UUIDs with a zero version nibble, are
+ * compared by their 112 bit hashed key.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * ExpiringIdentifierSet seen = ExpiringIdentifierSet.create(Duration.ofMinutes(10));
+ *
+ * if (!seen.add(new UUIDIdentifier(request.idempotencyKey())))
+ *     return Response.duplicate();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. {@link #contains(Identifier)} is lock-free
+ * and {@link #add(Identifier)} only locks one of several stripes.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierKey
+ */
+public final class ExpiringIdentifierSet {
+
+    /**
+     * The number of buckets used by {@link #create(Duration)}.
+     */
+    public static final int DEFAULT_BUCKETS = 16;
+
+    private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int buckets;
+    private final long bucketNanos;
+    private final long origin = System.nanoTime();
+
+    private ExpiringIdentifierSet(final long bucketNanos, final int buckets, final int stripes) {
+        this.bucketNanos = bucketNanos;
+        this.buckets = buckets;
+        this.stripes = new Stripe[stripes];
+        this.mask = stripes - 1;
+        for (int i = 0; i < stripes; i++)
+            this.stripes[i] = new Stripe(buckets + 1);
+    }
+
+    /**
+     * Creates a set remembering identifiers for the given window, with
+     * {@link #DEFAULT_BUCKETS the default number of buckets}.
+     *
+     * @param window how long an identifier is remembered
+     * @return the new, empty set
+     * @throws IllegalArgumentException if the window is not positive
+     */
+    public static @NonNull ExpiringIdentifierSet create(final @NonNull Duration window) {
+        return create(window, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Creates a set remembering identifiers for the given window, split into the given number
+     * of buckets. More buckets expire identifiers closer to the window.
+     *
+     * @param window  how long an identifier is remembered
+     * @param buckets the number of buckets the window is split into
+     * @return the new, empty set
+     * @throws IllegalArgumentException if the window or the number of buckets is not positive
+     */
+    public static @NonNull ExpiringIdentifierSet create(final @NonNull Duration window, final int buckets) {
+        if (window.isNegative() || window.isZero()) throw new IllegalArgumentException("The window must be positive");
+        if (buckets <= 0 || buckets > 1024) throw new IllegalArgumentException("The number of buckets must be between 1 and 1024");
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        long bucketNanos = Math.max(1L, window.toNanos() / buckets + (window.toNanos() % buckets == 0 ? 0 : 1));
+        return new ExpiringIdentifierSet(bucketNanos, buckets, Integer.highestOneBit(processors * 2 - 1) << 1);
+    }
+
+    /**
+     * Adds the given identifier unless it was already added within the window.
+     *
+     * @param identifier the identifier to add
+     * @return {@code true} if the identifier was not present, {@code false} for a duplicate
+     */
+    public boolean add(final @NonNull Identifier<?> identifier) {
+        IdentifierKey key = IdentifierKey.of(identifier);
+        long hash = spread(key.high(), key.low());
+        return stripes[(int) (hash >>> 32) & mask].add(key.high(), key.low(), (int) hash);
+    }
+
+    /**
+     * Adds the identifier of the given object unless it was already added within the window.
+     *
+     * @param identifiable the object to add
+     * @return {@code true} if the identifier was not present, {@code false} for a duplicate
+     * @see #add(Identifier)
+     */
+    public boolean add(final @NonNull Identifiable<?, ?> identifiable) {
+        return add(identifiable.identifier());
+    }
+
+    /**
+     * Checks whether the given identifier was added within the window.
+     *
+     * @param identifier the identifier to look up
+     * @return {@code true} if the identifier is present
+     */
+    public boolean contains(final @NonNull Identifier<?> identifier) {
+        IdentifierKey key = IdentifierKey.of(identifier);
+        long hash = spread(key.high(), key.low());
+        return stripes[(int) (hash >>> 32) & mask].contains(key.high(), key.low(), (int) hash, epoch());
+    }
+
+    /**
+     * Checks whether the identifier of the given object was added within the window.
+     *
+     * @param identifiable the object to look up
+     * @return {@code true} if the identifier is present
+     * @see #contains(Identifier)
+     */
+    public boolean contains(final @NonNull Identifiable<?, ?> identifiable) {
+        return contains(identifiable.identifier());
+    }
+
+    /**
+     * Returns the approximate number of identifiers within the window.
+     *
+     * @return the number of remembered identifiers
+     */
+    public long size() {
+        long now = epoch();
+        long size = 0L;
+        for (Stripe stripe : stripes)
+            for (Bucket bucket : stripe.ring)
+                if (now - bucket.epoch <= buckets) size += bucket.count;
+        return size;
+    }
+
+    /**
+     * Returns the window after which identifiers are forgotten.
+     *
+     * @return the window
+     */
+    public @NonNull Duration window() {
+        return Duration.ofNanos(bucketNanos * buckets);
+    }
+
+    /**
+     * Returns a string representation of this set.
+     * <p>
+     * The format is: {@code "ExpiringIdentifierSet{window=" + window() + ", buckets=" + buckets + "}"}
+     * </p>
+     *
+     * @return a string representation containing the window and number of buckets
+     */
+    @Override
+    public String toString() {
+        return "ExpiringIdentifierSet{window=" + window() + ", buckets=" + buckets + "}";
+    }
+
+    /**
+     * Returns the current bucket number, starting at {@code 1} so that the zero stamp of
+     * an unused slot never matches.
+     */
+    private long epoch() {
+        return (System.nanoTime() - origin) / bucketNanos + 1L;
+    }
+
+    private static long spread(final long high, final long low) {
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * The buckets of one stripe. Bucket {@code e} of the ring holds the identifiers added
+     * during epoch {@code e}, so the ring covers the window plus the current bucket.
+     */
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Bucket[] ring;
+
+        private Stripe(final int size) {
+            this.ring = new Bucket[size];
+            for (int i = 0; i < size; i++)
+                ring[i] = new Bucket();
+        }
+
+        private boolean add(final long high, final long low, final int hash) {
+            lock.lock();
+            try {
+                long now = epoch(); // read under the lock, so buckets are never recycled backwards
+                if (contains(high, low, hash, now)) return false;
+
+                Bucket bucket = ring[(int) (now % ring.length)];
+                if (bucket.epoch != now) bucket.recycle(now);
+                bucket.insert(high, low, hash);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean contains(final long high, final long low, final int hash, final long now) {
+            for (long epoch = now; epoch > 0L && now - epoch <= buckets; epoch--) {
+                Bucket bucket = ring[(int) (epoch % ring.length)];
+                if (bucket.epoch == epoch && bucket.contains(high, low, hash, epoch)) return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Bucket {
+
+        private volatile long epoch; // 0 while never used
+        private volatile Slots slots = new Slots(MIN_CAPACITY);
+        private volatile int count; // only written under the stripe lock
+
+        /**
+         * Reuses this bucket for a new epoch. Changing the epoch expires every slot at once.
+         */
+        private void recycle(final long now) {
+            Slots current = slots;
+            if (count * 8 < current.stamps.length && current.stamps.length > MIN_CAPACITY)
+                slots = new Slots(current.stamps.length / 2);
+            epoch = now; // published before any slot is stamped with it
+            count = 0;
+        }
+
+        private void insert(final long high, final long low, final int hash) {
+            Slots current = slots;
+            long stamp = epoch;
+            if (count + 1 > current.threshold) {
+                current = grow(current, stamp);
+                slots = current;
+            }
+
+            int mask = current.stamps.length - 1;
+            int index = hash & mask;
+            while (current.stamps[index] == stamp)
+                index = (index + 1) & mask;
+            current.highs[index] = high;
+            current.lows[index] = low;
+            STAMPS.setRelease(current.stamps, index, stamp);
+            count++;
+        }
+
+        private boolean contains(final long high, final long low, final int hash, final long expected) {
+            Slots current = slots;
+            int mask = current.stamps.length - 1;
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                if ((long) STAMPS.getAcquire(current.stamps, index) != expected) return false;
+                if (current.highs[index] == high && current.lows[index] == low) {
+                    // the bucket may have been recycled while the slot was read
+                    VarHandle.acquireFence();
+                    return epoch == expected;
+                }
+            }
+        }
+
+        private static Slots grow(final Slots current, final long stamp) {
+            if (current.stamps.length >= MAX_CAPACITY) throw new IllegalStateException("The bucket cannot take any more identifiers");
+
+            Slots fresh = new Slots(current.stamps.length * 2);
+            int mask = fresh.stamps.length - 1;
+            for (int i = 0; i < current.stamps.length; i++) {
+                if (current.stamps[i] != stamp) continue;
+
+                int index = (int) spread(current.highs[i], current.lows[i]) & mask;
+                while (fresh.stamps[index] == stamp)
+                    index = (index + 1) & mask;
+                fresh.highs[index] = current.highs[i];
+                fresh.lows[index] = current.lows[i];
+                fresh.stamps[index] = stamp;
+            }
+            return fresh;
+        }
+    }
+
+    /**
+     * The slots of a bucket. A slot is occupied if its stamp is the epoch of the bucket. The
+     * stamps are full epochs, so a stamp never comes back and never matches an unused slot.
+     */
+    private static final class Slots {
+
+        private final long[] highs;
+        private final long[] lows;
+        private final long[] stamps;
+        private final int threshold;
+
+        private Slots(final int capacity) {
+            this.highs = new long[capacity];
+            this.lows = new long[capacity];
+            this.stamps = new long[capacity];
+            this.threshold = capacity / 2 + capacity / 8;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import lombok.NonNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed bitmap set of {@link IntIdentifier} and {@link ShortIdentifier} values.
+ * <p>
+ * Values are split into their high and low 16 bits. Every distinct high half owns a container
+ * holding the low halves, stored as a sorted array while sparse, as a plain bitmap while dense
+ * and, after {@link #runOptimize()}, as a list of ranges where that is smaller. A sparse set
+ * costs about two bytes per element and a dense one about one bit, compared to 40 or more bytes
+ * per element in a {@code HashSet<IntIdentifier>}. Set operations work container by container
+ * on sorted arrays and 64 bit words.
+ * </p>
+ * <p>
+ * Values are ordered as unsigned integers, so negative identifiers come after all positive ones.
+ * A {@link ShortIdentifier} is stored as its sign-extended {@code int} value and therefore shares
+ * its bits with the {@link IntIdentifier} of the same numeric value.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierBitmap segmentA = IdentifierBitmap.of(1, 2, 3, 100_000);
+ * IdentifierBitmap segmentB = IdentifierBitmap.of(2, 3);
+ *
+ * IdentifierBitmap onlyA = segmentA.andNot(segmentB);  // {1, 100000}
+ * long count = onlyA.cardinality();                    // 2
+ *
+ * ByteBuffer buffer = ByteBuffer.allocate(onlyA.serializedSize());
+ * onlyA.serialize(buffer);
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is not thread-safe. Set operations never modify
+ * their operands, so bitmaps that are no longer modified can be shared freely.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IntIdentifier
+ * @see ShortIdentifier
+ */
+public final class IdentifierBitmap implements Iterable<IntIdentifier> {
+
+    private static final int MAGIC = 0x4E434B42; // "NCKB"
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Constructs an empty bitmap.
+     */
+    public IdentifierBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private IdentifierBitmap(final char[] keys, final Container[] containers, final int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Creates a bitmap holding the given values.
+     *
+     * @param values the values to add
+     * @return the new bitmap
+     */
+    public static @NonNull IdentifierBitmap of(final int... values) {
+        IdentifierBitmap bitmap = new IdentifierBitmap();
+        for (int value : values)
+            bitmap.add(value);
+        return bitmap;
+    }
+
+    /**
+     * Adds the given identifier.
+     *
+     * @param identifier the identifier to add
+     * @return {@code true} if the identifier was not present before
+     */
+    public boolean add(final @NonNull IntIdentifier identifier) {
+        return add(identifier.intValue());
+    }
+
+    /**
+     * Adds the given identifier.
+     *
+     * @param identifier the identifier to add
+     * @return {@code true} if the identifier was not present before
+     */
+    public boolean add(final @NonNull ShortIdentifier identifier) {
+        return add(identifier.intValue());
+    }
+
+    /**
+     * Adds the given value.
+     *
+     * @param value the value to add
+     * @return {@code true} if the value was not present before
+     */
+    public boolean add(final int value) {
+        char high = (char) (value >>> 16);
+        int index = indexOf(high);
+
+        if (index < 0) {
+            insert(-index - 1, high, new Container.Array().add(value & 0xFFFF));
+            return true;
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container = container.add(value & 0xFFFF);
+        return container.cardinality() != before;
+    }
+
+    /**
+     * Removes the given identifier.
+     *
+     * @param identifier the identifier to remove
+     * @return {@code true} if the identifier was present
+     */
+    public boolean remove(final @NonNull IntIdentifier identifier) {
+        return remove(identifier.intValue());
+    }
+
+    /**
+     * Removes the given identifier.
+     *
+     * @param identifier the identifier to remove
+     * @return {@code true} if the identifier was present
+     */
+    public boolean remove(final @NonNull ShortIdentifier identifier) {
+        return remove(identifier.intValue());
+    }
+
+    /**
+     * Removes the given value.
+     *
+     * @param value the value to remove
+     * @return {@code true} if the value was present
+     */
+    public boolean remove(final int value) {
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0) return false;
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = container.remove(value & 0xFFFF);
+        if (container.cardinality() == before) return false;
+
+        if (container.cardinality() == 0) delete(index);
+        else containers[index] = container;
+        return true;
+    }
+
+    /**
+     * Checks whether the given identifier is present.
+     *
+     * @param identifier the identifier to check
+     * @return {@code true} if the identifier is present
+     */
+    public boolean contains(final @NonNull IntIdentifier identifier) {
+        return contains(identifier.intValue());
+    }
+
+    /**
+     * Checks whether the given identifier is present.
+     *
+     * @param identifier the identifier to check
+     * @return {@code true} if the identifier is present
+     */
+    public boolean contains(final @NonNull ShortIdentifier identifier) {
+        return contains(identifier.intValue());
+    }
+
+    /**
+     * Checks whether the given value is present.
+     *
+     * @param value the value to check
+     * @return {@code true} if the value is present
+     */
+    public boolean contains(final int value) {
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains(value & 0xFFFF);
+    }
+
+    /**
+     * Returns the number of values in this bitmap.
+     *
+     * @return the cardinality
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++)
+            cardinality += containers[i].cardinality();
+        return cardinality;
+    }
+
+    /**
+     * Checks whether this bitmap holds no values.
+     *
+     * @return {@code true} if the bitmap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the intersection of this and the given bitmap.
+     *
+     * @param other the other bitmap
+     * @return a new bitmap with the values present in both
+     */
+    public @NonNull IdentifierBitmap and(final @NonNull IdentifierBitmap other) {
+        IdentifierBitmap result = new IdentifierBitmap(new char[Math.max(4, Math.min(size, other.size))],
+                new Container[Math.max(4, Math.min(size, other.size))], 0);
+
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            char x = keys[i], y = other.keys[j];
+            if (x < y) i++;
+            else if (x > y) j++;
+            else {
+                result.append(x, Container.and(containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the union of this and the given bitmap.
+     *
+     * @param other the other bitmap
+     * @return a new bitmap with the values present in either
+     */
+    public @NonNull IdentifierBitmap or(final @NonNull IdentifierBitmap other) {
+        IdentifierBitmap result = new IdentifierBitmap(new char[Math.max(4, size + other.size)],
+                new Container[Math.max(4, size + other.size)], 0);
+
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            char x = i < size ? keys[i] : Character.MAX_VALUE;
+            char y = j < other.size ? other.keys[j] : Character.MAX_VALUE;
+            if (j == other.size || (i < size && x < y)) result.append(x, containers[i++].copy());
+            else if (i == size || y < x) result.append(y, other.containers[j++].copy());
+            else result.append(x, Container.or(containers[i++], other.containers[j++]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the difference of this and the given bitmap.
+     *
+     * @param other the bitmap whose values are removed
+     * @return a new bitmap with the values of this bitmap not present in the other
+     */
+    public @NonNull IdentifierBitmap andNot(final @NonNull IdentifierBitmap other) {
+        IdentifierBitmap result = new IdentifierBitmap(new char[Math.max(4, size)], new Container[Math.max(4, size)], 0);
+
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            char x = keys[i];
+            while (j < other.size && other.keys[j] < x) j++;
+            if (j < other.size && other.keys[j] == x) result.append(x, Container.andNot(containers[i], other.containers[j]));
+            else result.append(x, containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Converts containers made of long consecutive ranges into a compact run representation.
+     * Call this once a bitmap is fully built and mostly read afterwards.
+     *
+     * @return this bitmap
+     */
+    public @NonNull IdentifierBitmap runOptimize() {
+        for (int i = 0; i < size; i++)
+            containers[i] = containers[i].runOptimize();
+        return this;
+    }
+
+    /**
+     * Returns an independent copy of this bitmap.
+     *
+     * @return the copy
+     */
+    public @NonNull IdentifierBitmap copy() {
+        Container[] copies = new Container[Math.max(4, size)];
+        for (int i = 0; i < size; i++)
+            copies[i] = containers[i].copy();
+        return new IdentifierBitmap(Arrays.copyOf(keys, Math.max(4, size)), copies, size);
+    }
+
+    /**
+     * Performs the given action for every value in ascending unsigned order.
+     *
+     * @param action the action to perform
+     */
+    public void forEachValue(final @NonNull IntConsumer action) {
+        for (int i = 0; i < size; i++)
+            containers[i].forEach(keys[i] << 16, action);
+    }
+
+    /**
+     * Returns an iterator over the values in ascending unsigned order.
+     *
+     * @return the iterator
+     */
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index;
+            private int next = size > 0 ? containers[0].nextValue(0) : -1;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= size) throw new NoSuchElementException();
+
+                int value = keys[index] << 16 | next;
+                next = next < 0xFFFF ? containers[index].nextValue(next + 1) : -1;
+                if (next < 0 && ++index < size) next = containers[index].nextValue(0);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the values as identifiers in ascending unsigned order.
+     *
+     * @return the iterator
+     */
+    @Override
+    public @NonNull Iterator<IntIdentifier> iterator() {
+        PrimitiveIterator.OfInt values = intIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public IntIdentifier next() {
+                return new IntIdentifier(values.nextInt());
+            }
+        };
+    }
+
+    /**
+     * Returns all values in ascending unsigned order.
+     *
+     * @return the values
+     * @throws IllegalStateException if the bitmap holds more values than fit into an array
+     */
+    public int[] toArray() {
+        long cardinality = cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many values for an array");
+
+        int[] values = new int[(int) cardinality];
+        int[] index = new int[1];
+        forEachValue(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #serialize(ByteBuffer)}.
+     *
+     * @return the serialized size in bytes
+     */
+    public int serializedSize() {
+        int bytes = 8;
+        for (int i = 0; i < size; i++)
+            bytes += 3 + containers[i].serializedSize();
+        return bytes;
+    }
+
+    /**
+     * Writes this bitmap to the given buffer, starting at its position and using its byte order.
+     *
+     * @param buffer the buffer to write to, with at least {@link #serializedSize()} bytes remaining
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void serialize(final @NonNull ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putChar(keys[i]);
+            buffer.put(containers[i].type());
+            containers[i].write(buffer);
+        }
+    }
+
+    /**
+     * Reads a bitmap written by {@link #serialize(ByteBuffer)} from the given buffer,
+     * which must use the byte order it was written with.
+     *
+     * @param buffer the buffer to read from, positioned at the start of the bitmap
+     * @return the bitmap
+     * @throws IllegalArgumentException if the buffer does not contain a valid bitmap
+     */
+    public static @NonNull IdentifierBitmap deserialize(final @NonNull ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) throw new IllegalArgumentException("The buffer does not contain a bitmap");
+            int size = buffer.getInt();
+            if (size < 0 || size > 0x10000) throw new IllegalArgumentException("Corrupt container count " + size);
+
+            char[] keys = new char[Math.max(4, size)];
+            Container[] containers = new Container[Math.max(4, size)];
+            for (int i = 0; i < size; i++) {
+                keys[i] = buffer.getChar();
+                if (i > 0 && keys[i] <= keys[i - 1]) throw new IllegalArgumentException("Containers are not sorted");
+                containers[i] = Container.read(buffer.get(), buffer);
+            }
+            return new IdentifierBitmap(keys, containers, size);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The buffer ends inside the bitmap", e);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) return true;
+        if (!(object instanceof IdentifierBitmap other) || size != other.size) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != other.keys[i]) return false;
+            Container a = containers[i], b = other.containers[i];
+            if (a.cardinality() != b.cardinality()) return false;
+            for (int value = a.nextValue(0); value >= 0; value = value < 0xFFFF ? a.nextValue(value + 1) : -1)
+                if (!b.contains(value)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        forEachValue(value -> hash[0] = 31 * hash[0] + value);
+        return hash[0];
+    }
+
+    /**
+     * Returns a string representation of this bitmap.
+     * <p>
+     * The format is: {@code "IdentifierBitmap{cardinality=" + cardinality() + ", containers=" + n + "}"}
+     * </p>
+     *
+     * @return a string representation containing the cardinality and container count
+     */
+    @Override
+    public String toString() {
+        return "IdentifierBitmap{cardinality=" + cardinality() + ", containers=" + size + "}";
+    }
+
+    private int indexOf(final char high) {
+        // the last container is hit most often when values are added in ascending order
+        if (size > 0 && keys[size - 1] == high) return size - 1;
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insert(final int index, final char high, final Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(final int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private void append(final char high, final Container container) {
+        if (container.cardinality() == 0) return;
+        insert(size, high, container);
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * A concurrent Bloom filter for {@link Identifier}s, used to skip expensive lookups
+ * for identifiers that were never added.
+ * <p>
+ * {@link #mightContain(Identifier)} never returns {@code false} for an added identifier and
+ * returns {@code true} for an identifier that was not added only with about the configured
+ * false positive rate. The filter is blocked: all bits of one identifier lie in the same
+ * 64 byte block, so a query touches a single cache line. Identifiers are hashed with
+ * {@link IdentifierHash}, so filters can be persisted and shared between processes.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierFilter known = IdentifierFilter.create(1_000_000, 0.01);
+ * known.put(new LongIdentifier(42L));
+ *
+ * if (!known.mightContain(id)) return Result.empty(); // definitely unknown, skip the lookup
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Inserts set bits with atomic
+ * bitwise operations and never block.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierHash
+ */
+public final class IdentifierFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAGIC = 0x4E434B46; // "NCKF"
+    private static final int VERSION = 1;
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+    private static final int MAX_HASHES = 16;
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    /**
+     * Odd multipliers whose top 9 product bits select the bits inside a block.
+     */
+    private static final long[] SALTS = new long[MAX_HASHES];
+
+    static {
+        for (int i = 0; i < MAX_HASHES; i++)
+            SALTS[i] = IdentifierHash.hash64((long) i) | 1L;
+    }
+
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+
+    private IdentifierFilter(final int blocks, final int hashes) {
+        this(new long[blocks * BLOCK_WORDS], hashes);
+    }
+
+    private IdentifierFilter(final long[] words, final int hashes) {
+        this.words = words;
+        this.blocks = words.length / BLOCK_WORDS;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Creates a filter sized for the given number of identifiers and false positive rate.
+     *
+     * @param expectedInsertions the number of identifiers that will be added
+     * @param falsePositiveRate  the desired false positive rate, between {@code 0} and {@code 1} exclusive
+     * @return the new, empty filter
+     * @throws IllegalArgumentException if an argument is out of range or the filter would be too large
+     */
+    public static @NonNull IdentifierFilter create(final long expectedInsertions, final double falsePositiveRate) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("The expected insertions must be positive");
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0))
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // blocks fill unevenly, which costs more accuracy the lower the target rate is
+        double overhead = 1.0 + bitsPerEntry / 60.0;
+        double blocks = Math.ceil(expectedInsertions * bitsPerEntry * overhead / BLOCK_BITS);
+        if (blocks > Integer.MAX_VALUE / BLOCK_WORDS)
+            throw new IllegalArgumentException("A filter for " + expectedInsertions + " insertions is too large");
+
+        int hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerEntry * Math.log(2))));
+        return new IdentifierFilter((int) blocks, hashes);
+    }
+
+    /**
+     * Adds the given identifier.
+     *
+     * @param identifier the identifier to add
+     * @return {@code true} if the filter changed, which is always the case for a new identifier
+     *         unless it collides with previous ones
+     */
+    public boolean put(final @NonNull Identifier<?> identifier) {
+        return putHash(IdentifierHash.hash64(identifier));
+    }
+
+    /**
+     * Adds an identifier by its {@link IdentifierHash} hash.
+     *
+     * @param hash the hash of the identifier
+     * @return {@code true} if the filter changed
+     */
+    public boolean putHash(final long hash) {
+        int base = blockOf(hash);
+
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((hash * SALTS[i]) >>> 55);
+            int index = base + (bit >>> 6);
+            long mask = 1L << bit;
+            if (((long) WORDS.getAcquire(words, index) & mask) == 0L) {
+                WORDS.getAndBitwiseOrRelease(words, index, mask);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether the given identifier might have been added.
+     *
+     * @param identifier the identifier to check
+     * @return {@code false} if the identifier was definitely never added
+     */
+    public boolean mightContain(final @NonNull Identifier<?> identifier) {
+        return mightContainHash(IdentifierHash.hash64(identifier));
+    }
+
+    /**
+     * Checks whether an identifier with the given {@link IdentifierHash} hash might have been added.
+     *
+     * @param hash the hash of the identifier
+     * @return {@code false} if the identifier was definitely never added
+     */
+    public boolean mightContainHash(final long hash) {
+        int base = blockOf(hash);
+
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((hash * SALTS[i]) >>> 55);
+            int index = base + (bit >>> 6);
+            if (((long) WORDS.getAcquire(words, index) & (1L << bit)) == 0L) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds all identifiers of another filter with the same size and hash count.
+     *
+     * @param other the filter to merge into this one
+     * @throws IllegalArgumentException if the filters are not compatible
+     */
+    public void putAll(final @NonNull IdentifierFilter other) {
+        if (other.blocks != blocks || other.hashes != hashes)
+            throw new IllegalArgumentException("Only filters of the same size and hash count can be merged");
+
+        for (int i = 0; i < words.length; i++) {
+            long word = (long) WORDS.getAcquire(other.words, i);
+            if (word != 0L) WORDS.getAndBitwiseOrRelease(words, i, word);
+        }
+    }
+
+    /**
+     * Estimates the current false positive rate from the share of set bits. Because blocks
+     * fill unevenly, the real rate is somewhat higher than this estimate.
+     *
+     * @return the estimated false positive rate
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0L;
+        for (int i = 0; i < words.length; i++)
+            set += Long.bitCount((long) WORDS.getAcquire(words, i));
+        return Math.pow((double) set / bitSize(), hashes);
+    }
+
+    /**
+     * Returns the number of bits in this filter.
+     *
+     * @return the size in bits
+     */
+    public long bitSize() {
+        return (long) words.length * 64L;
+    }
+
+    /**
+     * Returns the number of bits set per identifier.
+     *
+     * @return the hash count
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * Writes the filter. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final @NonNull OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(blocks);
+        data.writeInt(hashes);
+        for (int i = 0; i < words.length; i++)
+            data.writeLong((long) WORDS.getAcquire(words, i));
+        data.flush();
+    }
+
+    /**
+     * Reads a filter written by {@link #writeTo(OutputStream)}. Exactly the filter bytes are
+     * consumed and the stream is not closed, so pass a buffered stream for large filters.
+     *
+     * @param in the stream to read from
+     * @return the restored filter
+     * @throws IOException if reading fails or the stream holds no filter
+     */
+    public static @NonNull IdentifierFilter readFrom(final @NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("The stream does not contain a filter");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Unsupported filter version " + version);
+
+        int blocks = data.readInt();
+        int hashes = data.readInt();
+        if (blocks <= 0 || blocks > Integer.MAX_VALUE / BLOCK_WORDS || hashes <= 0 || hashes > MAX_HASHES)
+            throw new IOException("Corrupt filter header");
+
+        return new IdentifierFilter(readLongs(data, blocks * BLOCK_WORDS), hashes);
+    }
+
+    /**
+     * Reads the given number of longs. The length comes from an untrusted header, so the array
+     * starts small and grows with the data actually read, and a short stream fails with an
+     * {@link java.io.EOFException} before the full size is allocated.
+     */
+    private static long[] readLongs(final DataInputStream data, final int length) throws IOException {
+        long[] values = new long[Math.min(length, MAX_PRESIZE)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) values = Arrays.copyOf(values, (int) Math.min(length, values.length * 2L));
+            values[i] = data.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * Returns a string representation of this filter.
+     * <p>
+     * The format is: {@code "IdentifierFilter{bits=" + bitSize() + ", hashes=" + hashCount() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the size and hash count
+     */
+    @Override
+    public String toString() {
+        return "IdentifierFilter{bits=" + bitSize() + ", hashes=" + hashes + "}";
+    }
+
+    private int blockOf(final long hash) {
+        return (int) Math.unsignedMultiplyHigh(hash, blocks) * BLOCK_WORDS;
+    }
+}
@@ -0,0 +1,341 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierKey;
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A concurrent hash map for {@link Identifier}s of mixed types, keyed by their {@link IdentifierKey}.
+ * <p>
+ * Keys are stored as two primitive {@code long} arrays with open addressing, so a lookup is a
+ * short linear probe comparing two {@code long}s per slot instead of virtual {@code equals}
+ * calls on boxed keys. Keys of strings, and of UUIDs with a zero version nibble, are hashes;
+ * the map keeps every identifier and compares its original value on a hashed match, so
+ * colliding identifiers are never confused.
+ * </p>
+ * <p>
+ * Lookups are lock-free. Writers take a short lock and publish every new slot with release
+ * semantics; a slot, once assigned to a key, keeps that key until the table is rebuilt.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierKeyMap<Session> sessions = new IdentifierKeyMap<>();
+ * sessions.put(new UUIDIdentifier(playerId), session);
+ * sessions.put(new StringIdentifier("console"), consoleSession);
+ *
+ * Session session = sessions.get(new UUIDIdentifier(playerId));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Iteration is weakly consistent.</p>
+ *
+ * @param <V> the type of the values
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierKey
+ */
+public final class IdentifierKeyMap<V> {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Table table;
+    private volatile int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public IdentifierKeyMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty map sized for the given number of identifiers.
+     *
+     * @param expectedSize the expected number of identifiers
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public IdentifierKeyMap(final int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("The expected size must not be negative");
+        this.table = new Table(capacity(expectedSize));
+    }
+
+    /**
+     * Returns the value of the given identifier.
+     *
+     * @param identifier the identifier to look up
+     * @return the value, or {@code null} if the identifier is not present
+     */
+    public V get(final @NonNull Identifier<?> identifier) {
+        IdentifierKey key = IdentifierKey.of(identifier);
+        return value(table, key.high(), key.low(), key.hashed() ? identifier : null);
+    }
+
+    /**
+     * Returns the value of the given key. Hashed keys are not checked against
+     * the original identifier.
+     *
+     * @param key the key to look up
+     * @return the value, or {@code null} if the key is not present
+     */
+    public V get(final @NonNull IdentifierKey key) {
+        return value(table, key.high(), key.low(), null);
+    }
+
+    /**
+     * Returns the value of the given key halves, for example the bits of a {@link java.util.UUID}
+     * with a non-zero version. Hashed keys are not checked against the original identifier.
+     *
+     * @param high the upper 64 bits of the key
+     * @param low  the lower 64 bits of the key
+     * @return the value, or {@code null} if the key is not present
+     */
+    public V get(final long high, final long low) {
+        return value(table, high, low, null);
+    }
+
+    /**
+     * Checks whether the given identifier is present.
+     *
+     * @param identifier the identifier to look up
+     * @return {@code true} if the identifier is present
+     */
+    public boolean containsKey(final @NonNull Identifier<?> identifier) {
+        return get(identifier) != null;
+    }
+
+    /**
+     * Associates the given value with the identifier.
+     *
+     * @param identifier the identifier
+     * @param value      the value
+     * @return the previous value, or {@code null} if the identifier was not present
+     * @throws IllegalStateException if the hashed key of the identifier collides with
+     *                               the key of a different identifier in this map
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final @NonNull Identifier<?> identifier, final @NonNull V value) {
+        IdentifierKey key = IdentifierKey.of(identifier);
+        lock.lock();
+        try {
+            Table current = table;
+            int index = slot(current, key.high(), key.low());
+            if (current.identifiers[index] != null) {
+                check(current, index, key, identifier);
+                Object previous = current.values[index];
+                SLOTS.setRelease(current.values, index, value);
+                if (previous == null) size++;
+                return (V) previous;
+            }
+
+            if (current.used + 1 > current.threshold) {
+                current = rebuild(current);
+                index = slot(current, key.high(), key.low());
+            }
+            current.highs[index] = key.high();
+            current.lows[index] = key.low();
+            SLOTS.setRelease(current.values, index, value);
+            SLOTS.setRelease(current.identifiers, index, identifier); // publishes the slot
+            current.used++;
+            size++;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the given identifier.
+     *
+     * @param identifier the identifier to remove
+     * @return the removed value, or {@code null} if the identifier was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final @NonNull Identifier<?> identifier) {
+        IdentifierKey key = IdentifierKey.of(identifier);
+        lock.lock();
+        try {
+            Table current = table;
+            int index = slot(current, key.high(), key.low());
+            if (current.identifiers[index] == null || current.values[index] == null
+                    || !same(current, index, key, identifier)) return null;
+
+            Object previous = current.values[index];
+            SLOTS.setRelease(current.values, index, null); // the slot stays reserved for its key
+            size--;
+            return (V) previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            table = new Table(capacity(0));
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Performs the given action for every entry, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final @NonNull BiConsumer<? super Identifier<?>, ? super V> action) {
+        Table current = table;
+        for (int i = 0; i < current.values.length; i++) {
+            Object identifier = SLOTS.getAcquire(current.identifiers, i);
+            if (identifier == null) continue;
+            Object value = SLOTS.getAcquire(current.values, i);
+            if (value != null) action.accept((Identifier<?>) identifier, (V) value);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this map has no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a string representation of this map.
+     * <p>
+     * The format is: {@code "IdentifierKeyMap{size=" + size() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the number of entries
+     */
+    @Override
+    public String toString() {
+        return "IdentifierKeyMap{size=" + size + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V value(final Table table, final long high, final long low, final Identifier<?> verify) {
+        int mask = table.highs.length - 1;
+        for (int index = spread(high, low) & mask; ; index = (index + 1) & mask) {
+            Object stored = SLOTS.getAcquire(table.identifiers, index);
+            if (stored == null) return null;
+            if (table.highs[index] != high || table.lows[index] != low) continue;
+
+            if (verify != null && !sameValue((Identifier<?>) stored, verify)) return null;
+            return (V) SLOTS.getAcquire(table.values, index);
+        }
+    }
+
+    /**
+     * Returns the slot of the given key, or the empty slot where it belongs.
+     */
+    private static int slot(final Table table, final long high, final long low) {
+        int mask = table.highs.length - 1;
+        int index = spread(high, low) & mask;
+        while (table.identifiers[index] != null && (table.highs[index] != high || table.lows[index] != low))
+            index = (index + 1) & mask;
+        return index;
+    }
+
+    private static void check(final Table table, final int index, final IdentifierKey key,
+                              final Identifier<?> identifier) {
+        if (!same(table, index, key, identifier))
+            throw new IllegalStateException("The key of " + identifier + " collides with " + table.identifiers[index]);
+    }
+
+    private static boolean same(final Table table, final int index, final IdentifierKey key,
+                                final Identifier<?> identifier) {
+        return !key.hashed() || sameValue((Identifier<?>) table.identifiers[index], identifier);
+    }
+
+    private static boolean sameValue(final Identifier<?> stored, final Identifier<?> identifier) {
+        return stored == identifier || Objects.equals(stored.original(), identifier.original());
+    }
+
+    /**
+     * Copies the live entries into a new table, dropping removed slots, and publishes it.
+     */
+    private Table rebuild(final Table current) {
+        int live = size + 1;
+        Table fresh = new Table(capacity(live));
+        for (int i = 0; i < current.values.length; i++) {
+            Object value = current.values[i];
+            if (value == null) continue;
+
+            int index = slot(fresh, current.highs[i], current.lows[i]);
+            fresh.highs[index] = current.highs[i];
+            fresh.lows[index] = current.lows[i];
+            fresh.values[index] = value;
+            fresh.identifiers[index] = current.identifiers[i];
+            fresh.used++;
+        }
+        table = fresh;
+        return fresh;
+    }
+
+    private static int capacity(final int expectedSize) {
+        long capacity = Math.max(16L, Long.highestOneBit(Math.max(1L, expectedSize * 2L) * 2L - 1L));
+        if (capacity > MAX_CAPACITY) throw new IllegalStateException("The map cannot take any more identifiers");
+        return (int) capacity;
+    }
+
+    private static int spread(final long high, final long low) {
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * The slots of the map. A slot is free while its identifier is {@code null} and removed
+     * while its value is {@code null}.
+     */
+    private static final class Table {
+
+        private final long[] highs;
+        private final long[] lows;
+        private final Object[] identifiers;
+        private final Object[] values;
+        private final int threshold;
+        private int used; // assigned slots including removed ones, only accessed under the lock
+
+        private Table(final int capacity) {
+            this.highs = new long[capacity];
+            this.lows = new long[capacity];
+            this.identifiers = new Object[capacity];
+            this.values = new Object[capacity];
+            this.threshold = capacity / 2 + capacity / 8;
+        }
+    }
+}
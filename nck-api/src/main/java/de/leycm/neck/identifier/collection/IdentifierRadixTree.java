@@ -0,0 +1,767 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.type.StringIdentifier;
+import lombok.NonNull;
+
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent adaptive radix tree mapping {@link StringIdentifier}s to values, ordered by key.
+ * <p>
+ * Keys are stored byte-wise with path compression, so identifiers sharing a hierarchical prefix
+ * such as {@code "tenant/region/"} share the nodes of that prefix. Every inner node picks the
+ * smallest of three layouts for its number of children: sorted arrays for up to 16 children,
+ * a byte index over up to 48 children, and a direct table beyond that. Besides exact lookups
+ * the tree answers prefix and range queries in key order without scanning unrelated keys.
+ * </p>
+ * <p>
+ * Nodes are immutable. Writers take a short lock, copy the path from the root to the changed
+ * node and publish the new root, so lookups and iterations never lock and always see a
+ * consistent snapshot of the tree as of the moment they started.
+ * </p>
+ * <p>
+ * The key order is the order of {@link StringIdentifier#compareTo(String)}: every UTF-16 code
+ * unit is written in the UTF-8 byte layout, which keeps ASCII keys at one byte per character.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierRadixTree<Server> servers = IdentifierRadixTree.of(loaded);
+ * servers.put(new StringIdentifier("acme/eu-west/lobby-1"), lobby);
+ *
+ * for (Map.Entry<StringIdentifier, Server> entry : servers.withPrefix("acme/eu-west/"))
+ *     entry.getValue().broadcast(message);
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Reads are lock-free and iterators are
+ * weakly consistent: they reflect the tree as of their creation and never throw
+ * {@link java.util.ConcurrentModificationException}.</p>
+ *
+ * @param <V> the type of the values
+ * @author LeyCM
+ * @since 1.3.0
+ * @see StringIdentifier
+ * @see StringDictionary
+ */
+public final class IdentifierRadixTree<V> implements Iterable<Map.Entry<StringIdentifier, V>> {
+
+    private static final int LINEAR_MAX = 16;
+    private static final int INDEXED_MAX = 48;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Object root; // null, a Leaf or a Node
+    private volatile int size;
+
+    /**
+     * The leaf replaced or removed by the last write, only accessed under the lock.
+     */
+    private Leaf<V> displaced;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public IdentifierRadixTree() { }
+
+    /**
+     * Creates a tree holding the given entries. The tree is built bottom-up from the sorted
+     * keys, which is much faster than inserting the entries one by one.
+     *
+     * @param entries the entries to load
+     * @param <V>     the type of the values
+     * @return the new tree
+     */
+    public static <V> @NonNull IdentifierRadixTree<V> of(final @NonNull Map<StringIdentifier, ? extends V> entries) {
+        IdentifierRadixTree<V> tree = new IdentifierRadixTree<>();
+        tree.putAll(entries);
+        return tree;
+    }
+
+    /**
+     * Returns the value of the given identifier.
+     *
+     * @param identifier the identifier to look up
+     * @return the value, or {@code null} if the identifier is not present
+     */
+    public V get(final @NonNull StringIdentifier identifier) {
+        Leaf<V> leaf = find(encode(identifier.value()));
+        return leaf != null ? leaf.getValue() : null;
+    }
+
+    /**
+     * Checks whether the given identifier is present.
+     *
+     * @param identifier the identifier to look up
+     * @return {@code true} if the identifier is present
+     */
+    public boolean containsKey(final @NonNull StringIdentifier identifier) {
+        return find(encode(identifier.value())) != null;
+    }
+
+    /**
+     * Associates the given value with the identifier.
+     *
+     * @param identifier the identifier
+     * @param value      the value
+     * @return the previous value, or {@code null} if the identifier was not present
+     */
+    public V put(final @NonNull StringIdentifier identifier, final @NonNull V value) {
+        Leaf<V> leaf = new Leaf<>(encode(identifier.value()), identifier, value);
+        lock.lock();
+        try {
+            displaced = null;
+            root = insert(root, 0, leaf);
+            if (displaced == null) size++;
+            return displaced != null ? displaced.getValue() : null;
+        } finally {
+            displaced = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Associates all given values with their identifiers. The new entries become visible
+     * to readers together. If the tree is empty it is built bottom-up.
+     *
+     * @param entries the entries to add
+     */
+    public void putAll(final @NonNull Map<StringIdentifier, ? extends V> entries) {
+        @SuppressWarnings("unchecked")
+        Leaf<V>[] leaves = (Leaf<V>[]) new Leaf<?>[entries.size()];
+        int count = 0;
+        for (Map.Entry<StringIdentifier, ? extends V> entry : entries.entrySet()) {
+            StringIdentifier identifier = entry.getKey();
+            V value = entry.getValue();
+            if (identifier == null || value == null) throw new NullPointerException("The entries must not contain null");
+            leaves[count++] = new Leaf<>(encode(identifier.value()), identifier, value);
+        }
+        if (count == 0) return;
+
+        lock.lock();
+        try {
+            if (root == null) {
+                Arrays.sort(leaves, 0, count, (a, b) -> Arrays.compareUnsigned(a.key, b.key));
+                root = build(leaves, 0, count, 0);
+                size = count;
+                return;
+            }
+
+            Object updated = root;
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                displaced = null;
+                updated = insert(updated, 0, leaves[i]);
+                if (displaced == null) added++;
+            }
+            root = updated;
+            size += added;
+        } finally {
+            displaced = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the given identifier.
+     *
+     * @param identifier the identifier to remove
+     * @return the removed value, or {@code null} if the identifier was not present
+     */
+    public V remove(final @NonNull StringIdentifier identifier) {
+        byte[] key = encode(identifier.value());
+        lock.lock();
+        try {
+            displaced = null;
+            root = delete(root, 0, key);
+            if (displaced != null) size--;
+            return displaced != null ? displaced.getValue() : null;
+        } finally {
+            displaced = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            root = null;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this tree has no entries.
+     *
+     * @return {@code true} if the tree is empty
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns all entries whose identifier starts with the given prefix, in key order.
+     * Only the subtree below the prefix is visited.
+     *
+     * @param prefix the prefix of the identifiers
+     * @return the matching entries
+     */
+    public @NonNull Iterable<Map.Entry<StringIdentifier, V>> withPrefix(final @NonNull String prefix) {
+        byte[] bytes = encode(prefix);
+        return () -> {
+            Object subtree = locate(root, bytes);
+            if (subtree == null) return Collections.emptyIterator();
+            Cursor cursor = new Cursor(null);
+            cursor.start(subtree);
+            return cursor;
+        };
+    }
+
+    /**
+     * Returns all entries whose identifier lies between the given bounds, in key order.
+     *
+     * @param from the lowest identifier, inclusive
+     * @param to   the highest identifier, exclusive
+     * @return the matching entries
+     */
+    public @NonNull Iterable<Map.Entry<StringIdentifier, V>> range(final @NonNull StringIdentifier from,
+                                                                   final @NonNull StringIdentifier to) {
+        byte[] lower = encode(from.value());
+        byte[] upper = encode(to.value());
+        return () -> {
+            Cursor cursor = new Cursor(upper);
+            cursor.seek(root, lower);
+            return cursor;
+        };
+    }
+
+    /**
+     * Returns an iterator over all entries in key order.
+     *
+     * @return the iterator
+     */
+    @Override
+    public @NonNull Iterator<Map.Entry<StringIdentifier, V>> iterator() {
+        Object subtree = root;
+        Cursor cursor = new Cursor(null);
+        if (subtree != null) cursor.start(subtree);
+        return cursor;
+    }
+
+    /**
+     * Returns a string representation of this tree.
+     * <p>
+     * The format is: {@code "IdentifierRadixTree{size=" + size() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the number of entries
+     */
+    @Override
+    public String toString() {
+        return "IdentifierRadixTree{size=" + size + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<V> find(final byte[] key) {
+        Object current = root;
+        int depth = 0;
+        while (current instanceof Node node) {
+            byte[] prefix = node.prefix;
+            if (key.length - depth < prefix.length
+                    || !Arrays.equals(prefix, 0, prefix.length, key, depth, depth + prefix.length)) return null;
+            depth += prefix.length;
+            if (depth == key.length) return (Leaf<V>) node.entry;
+            current = node.child(key[depth++] & 0xFF);
+        }
+        return current instanceof Leaf<?> leaf && Arrays.equals(leaf.key, key) ? (Leaf<V>) leaf : null;
+    }
+
+    private static Object locate(Object current, final byte[] prefix) {
+        int depth = 0;
+        while (current instanceof Node node) {
+            int length = Math.min(node.prefix.length, prefix.length - depth);
+            if (!Arrays.equals(node.prefix, 0, length, prefix, depth, depth + length)) return null;
+            if (prefix.length - depth <= node.prefix.length) return node;
+            depth += node.prefix.length;
+            current = node.child(prefix[depth++] & 0xFF);
+        }
+        if (current instanceof Leaf<?> leaf && leaf.key.length >= prefix.length
+                && Arrays.equals(leaf.key, 0, prefix.length, prefix, 0, prefix.length)) return leaf;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object insert(final Object current, final int depth, final Leaf<V> leaf) {
+        byte[] key = leaf.key;
+        if (current == null) return leaf;
+
+        if (current instanceof Leaf<?> existing) {
+            if (Arrays.equals(existing.key, key)) {
+                displaced = (Leaf<V>) existing;
+                return leaf;
+            }
+            int common = common(existing.key, key, depth, Math.min(existing.key.length, key.length));
+            return branch(Arrays.copyOfRange(key, depth, common), common, existing, leaf);
+        }
+
+        Node node = (Node) current;
+        byte[] prefix = node.prefix;
+        int matched = common(prefix, 0, key, depth, Math.min(prefix.length, key.length - depth));
+        if (matched < prefix.length) {
+            // the key leaves the compressed path, split it in front of the mismatch
+            Node lower = node.copy(Arrays.copyOfRange(prefix, matched + 1, prefix.length), node.entry);
+            Object[] children = {lower};
+            byte[] keys = {prefix[matched]};
+            int end = depth + matched;
+            if (end == key.length) return Node.of(Arrays.copyOf(prefix, matched), leaf, keys, children);
+            return Node.of(Arrays.copyOf(prefix, matched), null, keys, children).with(key[end] & 0xFF, leaf);
+        }
+
+        int end = depth + prefix.length;
+        if (end == key.length) {
+            displaced = (Leaf<V>) node.entry;
+            return node.copy(prefix, leaf);
+        }
+        int edge = key[end] & 0xFF;
+        return node.with(edge, insert(node.child(edge), end + 1, leaf));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object delete(final Object current, final int depth, final byte[] key) {
+        if (current instanceof Leaf<?> leaf) {
+            if (!Arrays.equals(leaf.key, key)) return current;
+            displaced = (Leaf<V>) leaf;
+            return null;
+        }
+        if (!(current instanceof Node node)) return current;
+
+        byte[] prefix = node.prefix;
+        if (key.length - depth < prefix.length
+                || !Arrays.equals(prefix, 0, prefix.length, key, depth, depth + prefix.length)) return current;
+
+        int end = depth + prefix.length;
+        if (end == key.length) {
+            if (node.entry == null) return current;
+            displaced = (Leaf<V>) node.entry;
+            return collapse(node.copy(prefix, null));
+        }
+
+        int edge = key[end] & 0xFF;
+        Object child = node.child(edge);
+        if (child == null) return current;
+        Object updated = delete(child, end + 1, key);
+        return updated == child ? current : collapse(node.with(edge, updated));
+    }
+
+    /**
+     * Replaces nodes that no longer branch by their only entry or by their only child
+     * with the paths merged.
+     */
+    private static Object collapse(final Node node) {
+        if (node.count == 0) return node.entry;
+        if (node.count > 1 || node.entry != null) return node;
+
+        int edge = node.next(0);
+        Object child = node.child(edge);
+        if (!(child instanceof Node lower)) return child;
+
+        byte[] prefix = new byte[node.prefix.length + 1 + lower.prefix.length];
+        System.arraycopy(node.prefix, 0, prefix, 0, node.prefix.length);
+        prefix[node.prefix.length] = (byte) edge;
+        System.arraycopy(lower.prefix, 0, prefix, node.prefix.length + 1, lower.prefix.length);
+        return lower.copy(prefix, lower.entry);
+    }
+
+    /**
+     * Builds the subtree of the sorted leaves in {@code [from, to)}, which all share
+     * their first {@code depth} bytes.
+     */
+    private static Object build(final Leaf<?>[] leaves, int from, final int to, final int depth) {
+        if (to - from == 1) return leaves[from];
+
+        byte[] first = leaves[from].key;
+        byte[] last = leaves[to - 1].key;
+        int end = common(first, last, depth, Math.min(first.length, last.length));
+
+        Leaf<?> entry = null;
+        if (first.length == end) entry = leaves[from++];
+
+        byte[] keys = new byte[Math.min(256, to - from)];
+        Object[] children = new Object[keys.length];
+        int count = 0;
+        while (from < to) {
+            byte edge = leaves[from].key[end];
+            int run = from + 1;
+            while (run < to && leaves[run].key[end] == edge) run++;
+            keys[count] = edge;
+            children[count++] = build(leaves, from, run, end + 1);
+            from = run;
+        }
+        return Node.of(Arrays.copyOfRange(first, depth, end), entry,
+                Arrays.copyOf(keys, count), Arrays.copyOf(children, count));
+    }
+
+    private static Node branch(final byte[] prefix, final int end, final Leaf<?> a, final Leaf<?> b) {
+        if (a.key.length == end) return Node.of(prefix, a, new byte[]{b.key[end]}, new Object[]{b});
+        if (b.key.length == end) return Node.of(prefix, b, new byte[]{a.key[end]}, new Object[]{a});
+
+        boolean ordered = (a.key[end] & 0xFF) < (b.key[end] & 0xFF);
+        Leaf<?> low = ordered ? a : b;
+        Leaf<?> high = ordered ? b : a;
+        return Node.of(prefix, null, new byte[]{low.key[end], high.key[end]}, new Object[]{low, high});
+    }
+
+    private static int common(final byte[] a, final byte[] b, final int from, final int to) {
+        int mismatch = Arrays.mismatch(a, from, to, b, from, to);
+        return mismatch < 0 ? to : from + mismatch;
+    }
+
+    private static int common(final byte[] a, final int aFrom, final byte[] b, final int bFrom, final int length) {
+        int mismatch = Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+        return mismatch < 0 ? length : mismatch;
+    }
+
+    /**
+     * Encodes every UTF-16 code unit in the UTF-8 byte layout. Unlike real UTF-8 this keeps
+     * the order of {@link String#compareTo(String)} and stays injective for unpaired surrogates.
+     */
+    private static byte[] encode(final String value) {
+        int length = value.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) size += c >= 0x800 ? 2 : 1;
+        }
+        if (size == length) return value.getBytes(StandardCharsets.ISO_8859_1);
+
+        byte[] bytes = new byte[size];
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * An entry of the tree, holding its full encoded key.
+     */
+    private static final class Leaf<V> extends AbstractMap.SimpleImmutableEntry<StringIdentifier, V> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] key;
+
+        private Leaf(final byte[] key, final StringIdentifier identifier, final V value) {
+            super(identifier, value);
+            this.key = key;
+        }
+    }
+
+    /**
+     * An immutable inner node: a compressed path, the entry whose key ends at this node
+     * and the children by their next key byte.
+     */
+    private abstract static sealed class Node permits Linear, Indexed, Direct {
+
+        final byte[] prefix;
+        final Leaf<?> entry;
+        final int count;
+
+        private Node(final byte[] prefix, final Leaf<?> entry, final int count) {
+            this.prefix = prefix;
+            this.entry = entry;
+            this.count = count;
+        }
+
+        static Node of(final byte[] prefix, final Leaf<?> entry, final byte[] keys, final Object[] children) {
+            if (keys.length <= LINEAR_MAX) return new Linear(prefix, entry, keys, children);
+            if (keys.length <= INDEXED_MAX) return new Indexed(prefix, entry, keys, children);
+            return new Direct(prefix, entry, keys, children);
+        }
+
+        /**
+         * Returns the child at the given key byte, or {@code null}.
+         */
+        abstract Object child(int edge);
+
+        /**
+         * Returns the smallest key byte of a child at or above {@code from}, or {@code -1}.
+         */
+        abstract int next(int from);
+
+        /**
+         * Returns a copy sharing the children with a different path and entry.
+         */
+        abstract Node copy(byte[] prefix, Leaf<?> entry);
+
+        /**
+         * Returns a copy with the child at the given key byte replaced, added or, for
+         * {@code null}, removed. The copy may use a different layout.
+         */
+        Node with(final int edge, final Object child) {
+            byte[] keys = new byte[count + 1];
+            Object[] children = new Object[count + 1];
+            int size = 0;
+            boolean placed = false;
+            for (int key = next(0); key >= 0; key = next(key + 1)) {
+                if (!placed && key >= edge) {
+                    placed = true;
+                    if (child != null) {
+                        keys[size] = (byte) edge;
+                        children[size++] = child;
+                    }
+                    if (key == edge) continue;
+                }
+                keys[size] = (byte) key;
+                children[size++] = child(key);
+            }
+            if (!placed && child != null) {
+                keys[size] = (byte) edge;
+                children[size++] = child;
+            }
+            return of(prefix, entry, Arrays.copyOf(keys, size), Arrays.copyOf(children, size));
+        }
+    }
+
+    private static final class Linear extends Node {
+
+        private final byte[] keys;
+        private final Object[] children;
+
+        private Linear(final byte[] prefix, final Leaf<?> entry, final byte[] keys, final Object[] children) {
+            super(prefix, entry, keys.length);
+            this.keys = keys;
+            this.children = children;
+        }
+
+        @Override
+        Object child(final int edge) {
+            for (int i = 0; i < keys.length; i++)
+                if ((keys[i] & 0xFF) == edge) return children[i];
+            return null;
+        }
+
+        @Override
+        int next(final int from) {
+            for (byte key : keys)
+                if ((key & 0xFF) >= from) return key & 0xFF;
+            return -1;
+        }
+
+        @Override
+        Node copy(final byte[] prefix, final Leaf<?> entry) {
+            return new Linear(prefix, entry, keys, children);
+        }
+    }
+
+    private static final class Indexed extends Node {
+
+        private final byte[] index = new byte[256]; // slot + 1, 0 for no child
+        private final Object[] children;
+
+        private Indexed(final byte[] prefix, final Leaf<?> entry, final byte[] keys, final Object[] children) {
+            super(prefix, entry, keys.length);
+            this.children = children;
+            for (int i = 0; i < keys.length; i++)
+                index[keys[i] & 0xFF] = (byte) (i + 1);
+        }
+
+        private Indexed(final Indexed node, final byte[] prefix, final Leaf<?> entry) {
+            super(prefix, entry, node.count);
+            this.children = node.children;
+            System.arraycopy(node.index, 0, index, 0, 256);
+        }
+
+        @Override
+        Object child(final int edge) {
+            int slot = index[edge];
+            return slot == 0 ? null : children[slot - 1];
+        }
+
+        @Override
+        int next(int from) {
+            for (; from < 256; from++)
+                if (index[from] != 0) return from;
+            return -1;
+        }
+
+        @Override
+        Node copy(final byte[] prefix, final Leaf<?> entry) {
+            return new Indexed(this, prefix, entry);
+        }
+    }
+
+    private static final class Direct extends Node {
+
+        private final Object[] children;
+
+        private Direct(final byte[] prefix, final Leaf<?> entry, final byte[] keys, final Object[] children) {
+            super(prefix, entry, keys.length);
+            this.children = new Object[256];
+            for (int i = 0; i < keys.length; i++)
+                this.children[keys[i] & 0xFF] = children[i];
+        }
+
+        private Direct(final Direct node, final byte[] prefix, final Leaf<?> entry) {
+            super(prefix, entry, node.count);
+            this.children = node.children;
+        }
+
+        @Override
+        Object child(final int edge) {
+            return children[edge];
+        }
+
+        @Override
+        int next(int from) {
+            for (; from < 256; from++)
+                if (children[from] != null) return from;
+            return -1;
+        }
+
+        @Override
+        Node copy(final byte[] prefix, final Leaf<?> entry) {
+            return new Direct(this, prefix, entry);
+        }
+    }
+
+    /**
+     * An in-order iterator over a snapshot of the tree, with an optional exclusive upper bound.
+     */
+    private final class Cursor implements Iterator<Map.Entry<StringIdentifier, V>> {
+
+        private final byte[] upper;
+        private Node[] nodes = new Node[8];
+        private int[] edges = new int[8];
+        private int top = -1;
+        private Leaf<?> next;
+
+        private Cursor(final byte[] upper) {
+            this.upper = upper;
+        }
+
+        private void start(final Object subtree) {
+            if (subtree instanceof Leaf<?> leaf) {
+                next = leaf;
+                return;
+            }
+            Node node = (Node) subtree;
+            push(node, 0);
+            next = node.entry != null ? node.entry : advance();
+            bound();
+        }
+
+        private void seek(Object current, final byte[] lower) {
+            int depth = 0;
+            while (current instanceof Node node) {
+                byte[] prefix = node.prefix;
+                int length = Math.min(prefix.length, lower.length - depth);
+                int compare = Arrays.compareUnsigned(prefix, 0, length, lower, depth, depth + length);
+                if (compare < 0) break; // the whole subtree lies below the bound
+                if (compare > 0 || lower.length - depth <= prefix.length) {
+                    start(node); // the whole subtree lies at or above the bound
+                    return;
+                }
+                depth += prefix.length;
+                int edge = lower[depth++] & 0xFF;
+                push(node, edge + 1);
+                current = node.child(edge);
+            }
+
+            if (current instanceof Leaf<?> leaf && Arrays.compareUnsigned(leaf.key, lower) >= 0) next = leaf;
+            else next = advance();
+            bound();
+        }
+
+        private Leaf<?> advance() {
+            while (top >= 0) {
+                Node node = nodes[top];
+                int edge = edges[top] < 256 ? node.next(edges[top]) : -1;
+                if (edge < 0) {
+                    nodes[top--] = null;
+                    continue;
+                }
+                edges[top] = edge + 1;
+
+                Object child = node.child(edge);
+                if (child instanceof Leaf<?> leaf) return leaf;
+                Node inner = (Node) child;
+                push(inner, 0);
+                if (inner.entry != null) return inner.entry;
+            }
+            return null;
+        }
+
+        private void push(final Node node, final int edge) {
+            if (++top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                edges = Arrays.copyOf(edges, top * 2);
+            }
+            nodes[top] = node;
+            edges[top] = edge;
+        }
+
+        private void bound() {
+            if (next != null && upper != null && Arrays.compareUnsigned(next.key, upper) >= 0) {
+                next = null;
+                top = -1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<StringIdentifier, V> next() {
+            Leaf<?> current = next;
+            if (current == null) throw new NoSuchElementException();
+            next = advance();
+            bound();
+            return (Leaf<V>) current;
+        }
+    }
+}
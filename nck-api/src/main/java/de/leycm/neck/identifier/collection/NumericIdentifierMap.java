@@ -0,0 +1,752 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.type.DoubleIdentifier;
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.LongIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent ordered map on primitive {@code long} keys, for numeric {@link Identifier}s.
+ * <p>
+ * The map is a B+-tree whose nodes hold their keys in plain {@code long} arrays, so neither
+ * keys nor lookups box. Besides exact lookups it answers floor and ceiling queries and range
+ * scans through a {@link Cursor}, and it can be bulk-loaded from sorted keys in linear time.
+ * </p>
+ * <p>
+ * Nodes are immutable. Writers take a short lock, copy the path from the root to the changed
+ * leaf and publish the new root, so lookups and scans never lock, scale with the number of
+ * reading threads and always see a consistent snapshot of the map.
+ * </p>
+ * <p>
+ * {@link IntIdentifier}, {@link ShortIdentifier} and {@link LongIdentifier} use their value as
+ * key. {@link DoubleIdentifier}s use {@link #sortableKey(double)}, which orders them like
+ * {@link Double#compare(double, double)}; a single map should not mix both kinds.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * NumericIdentifierMap<Event> events = NumericIdentifierMap.ofSorted(timestamps, loaded);
+ * events.put(new LongIdentifier(now), event);
+ *
+ * NumericIdentifierMap.Cursor<Event> cursor = events.range(from, to);
+ * while (cursor.next())
+ *     replay(cursor.key(), cursor.value());
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Reads are lock-free and cursors reflect
+ * the map as of their creation.</p>
+ *
+ * @param <V> the type of the values
+ * @author LeyCM
+ * @since 1.3.0
+ * @see LongIdentifier
+ * @see IdentifierRadixTree
+ */
+public final class NumericIdentifierMap<V> {
+
+    /**
+     * A key and its value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param <V>   the type of the value
+     */
+    public record Entry<V>(long key, @NonNull V value) { }
+
+    private static final int MAX = 64;
+    private static final int MIN = MAX / 4;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Node root; // null or a Leaf or an Inner
+    private volatile int size;
+
+    /**
+     * The value replaced or removed by the last write, only accessed under the lock.
+     */
+    private Object displaced;
+
+    /**
+     * Constructs an empty map.
+     */
+    public NumericIdentifierMap() { }
+
+    /**
+     * Creates a map from keys in strictly ascending order and their values. The tree is
+     * built bottom-up with full nodes, which is much faster than inserting the entries
+     * one by one.
+     *
+     * @param keys   the keys in strictly ascending order
+     * @param values the values, in the order of the keys
+     * @param <V>    the type of the values
+     * @return the new map
+     * @throws IllegalArgumentException if the keys are not strictly ascending or the sizes differ
+     */
+    public static <V> @NonNull NumericIdentifierMap<V> ofSorted(final long @NonNull [] keys,
+                                                                final @NonNull List<? extends V> values) {
+        if (keys.length != values.size()) throw new IllegalArgumentException("Every key needs exactly one value");
+        for (int i = 1; i < keys.length; i++)
+            if (keys[i - 1] >= keys[i]) throw new IllegalArgumentException("The keys must be strictly ascending");
+
+        NumericIdentifierMap<V> map = new NumericIdentifierMap<>();
+        if (keys.length == 0) return map;
+
+        int leaves = (keys.length + MAX - 1) / MAX;
+        Node[] level = new Node[leaves];
+        long[] lowest = new long[leaves];
+        for (int i = 0; i < leaves; i++) {
+            int from = (int) ((long) i * keys.length / leaves);
+            int to = (int) ((long) (i + 1) * keys.length / leaves);
+            Object[] chunk = new Object[to - from];
+            for (int j = from; j < to; j++)
+                if ((chunk[j - from] = values.get(j)) == null)
+                    throw new NullPointerException("The values must not contain null");
+            level[i] = new Leaf(Arrays.copyOfRange(keys, from, to), chunk);
+            lowest[i] = keys[from];
+        }
+
+        while (level.length > 1) {
+            int parents = (level.length + MAX - 1) / MAX;
+            Node[] upper = new Node[parents];
+            long[] upperLowest = new long[parents];
+            for (int i = 0; i < parents; i++) {
+                int from = (int) ((long) i * level.length / parents);
+                int to = (int) ((long) (i + 1) * level.length / parents);
+                upper[i] = new Inner(Arrays.copyOfRange(lowest, from + 1, to), Arrays.copyOfRange(level, from, to));
+                upperLowest[i] = lowest[from];
+            }
+            level = upper;
+            lowest = upperLowest;
+        }
+
+        map.root = level[0];
+        map.size = keys.length;
+        return map;
+    }
+
+    /**
+     * Returns the key of a numeric identifier.
+     *
+     * @param identifier the identifier
+     * @return the key
+     */
+    public static long key(final @NonNull Identifier<? extends Number> identifier) {
+        return switch (identifier) {
+            case LongIdentifier id -> id.longValue();
+            case IntIdentifier id -> id.longValue();
+            case ShortIdentifier id -> id.longValue();
+            case DoubleIdentifier id -> sortableKey(id.doubleValue());
+            default -> {
+                Number value = identifier.original();
+                yield value instanceof Double || value instanceof Float
+                        ? sortableKey(value.doubleValue()) : value.longValue();
+            }
+        };
+    }
+
+    /**
+     * Returns a key for the given {@code double} whose signed order is the order of
+     * {@link Double#compare(double, double)}.
+     *
+     * @param value the value
+     * @return the key
+     */
+    public static long sortableKey(final double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the {@code double} of a key created by {@link #sortableKey(double)}.
+     *
+     * @param key the key
+     * @return the value
+     */
+    public static double fromSortableKey(final long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key to look up
+     * @return the value, or {@code null} if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        Node node = root;
+        while (node instanceof Inner inner)
+            node = inner.children[index(inner.keys, key)];
+        if (node == null) return null;
+
+        Leaf leaf = (Leaf) node;
+        int index = Arrays.binarySearch(leaf.keys, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * Returns the value of the given identifier.
+     *
+     * @param identifier the identifier to look up
+     * @return the value, or {@code null} if the identifier is not present
+     */
+    public V get(final @NonNull Identifier<? extends Number> identifier) {
+        return get(key(identifier));
+    }
+
+    /**
+     * Checks whether the given key is present.
+     *
+     * @param key the key to look up
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(final long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the given value with the key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or {@code null} if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final @NonNull V value) {
+        lock.lock();
+        try {
+            displaced = null;
+            Object result = root == null ? new Leaf(new long[]{key}, new Object[]{value}) : insert(root, key, value);
+            root = result instanceof Split split
+                    ? new Inner(new long[]{split.key}, new Node[]{split.left, split.right})
+                    : (Node) result;
+            if (displaced == null) size++;
+            return (V) displaced;
+        } finally {
+            displaced = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Associates the given value with the identifier.
+     *
+     * @param identifier the identifier
+     * @param value      the value
+     * @return the previous value, or {@code null} if the identifier was not present
+     */
+    public V put(final @NonNull Identifier<? extends Number> identifier, final @NonNull V value) {
+        return put(key(identifier), value);
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @param key the key to remove
+     * @return the removed value, or {@code null} if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        lock.lock();
+        try {
+            displaced = null;
+            if (root == null) return null;
+
+            Node updated = delete(root, key);
+            while (updated instanceof Inner inner && inner.children.length == 1)
+                updated = inner.children[0];
+            if (updated instanceof Leaf leaf && leaf.keys.length == 0) updated = null;
+
+            root = updated;
+            if (displaced != null) size--;
+            return (V) displaced;
+        } finally {
+            displaced = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the given identifier.
+     *
+     * @param identifier the identifier to remove
+     * @return the removed value, or {@code null} if the identifier was not present
+     */
+    public V remove(final @NonNull Identifier<? extends Number> identifier) {
+        return remove(key(identifier));
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            root = null;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the entry with the greatest key less than or equal to the given key.
+     *
+     * @param key the key
+     * @return the entry, or {@code null} if there is none
+     */
+    public Entry<V> floor(final long key) {
+        return floor(root, key);
+    }
+
+    /**
+     * Returns the entry with the least key greater than or equal to the given key.
+     *
+     * @param key the key
+     * @return the entry, or {@code null} if there is none
+     */
+    public Entry<V> ceiling(final long key) {
+        return ceiling(root, key);
+    }
+
+    /**
+     * Returns the entry with the least key.
+     *
+     * @return the entry, or {@code null} if the map is empty
+     */
+    public Entry<V> first() {
+        Node node = root;
+        return node != null ? edge(node, false) : null;
+    }
+
+    /**
+     * Returns the entry with the greatest key.
+     *
+     * @return the entry, or {@code null} if the map is empty
+     */
+    public Entry<V> last() {
+        Node node = root;
+        return node != null ? edge(node, true) : null;
+    }
+
+    /**
+     * Returns a cursor over all entries in ascending key order.
+     *
+     * @return the cursor
+     */
+    public @NonNull Cursor<V> cursor() {
+        return new Cursor<>(root, Long.MIN_VALUE, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Returns a cursor over the entries with keys at or above the given key, in ascending order.
+     *
+     * @param from the lowest key, inclusive
+     * @return the cursor
+     */
+    public @NonNull Cursor<V> tail(final long from) {
+        return new Cursor<>(root, from, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Returns a cursor over the entries with keys between the given bounds, in ascending order.
+     *
+     * @param from the lowest key, inclusive
+     * @param to   the highest key, exclusive
+     * @return the cursor
+     */
+    public @NonNull Cursor<V> range(final long from, final long to) {
+        return new Cursor<>(root, from, to, false);
+    }
+
+    /**
+     * Returns a cursor over the entries with identifiers between the given bounds, in ascending order.
+     *
+     * @param from the lowest identifier, inclusive
+     * @param to   the highest identifier, exclusive
+     * @return the cursor
+     */
+    public @NonNull Cursor<V> range(final @NonNull Identifier<? extends Number> from,
+                                    final @NonNull Identifier<? extends Number> to) {
+        return range(key(from), key(to));
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this map has no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns a string representation of this map.
+     * <p>
+     * The format is: {@code "NumericIdentifierMap{size=" + size() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the number of entries
+     */
+    @Override
+    public String toString() {
+        return "NumericIdentifierMap{size=" + size + "}";
+    }
+
+    private Object insert(final Node node, final long key, final Object value) {
+        if (node instanceof Leaf leaf) {
+            int index = Arrays.binarySearch(leaf.keys, key);
+            if (index >= 0) {
+                displaced = leaf.values[index];
+                Object[] values = leaf.values.clone();
+                values[index] = value;
+                return new Leaf(leaf.keys, values);
+            }
+
+            index = -index - 1;
+            long[] keys = insertAt(leaf.keys, index, key);
+            Object[] values = insertAt(leaf.values, index, value);
+            if (keys.length <= MAX) return new Leaf(keys, values);
+
+            int middle = keys.length / 2;
+            return new Split(new Leaf(Arrays.copyOf(keys, middle), Arrays.copyOf(values, middle)), keys[middle],
+                    new Leaf(Arrays.copyOfRange(keys, middle, keys.length), Arrays.copyOfRange(values, middle, values.length)));
+        }
+
+        Inner inner = (Inner) node;
+        int index = index(inner.keys, key);
+        Object result = insert(inner.children[index], key, value);
+        if (result instanceof Node child) {
+            Node[] children = inner.children.clone();
+            children[index] = child;
+            return new Inner(inner.keys, children);
+        }
+
+        Split split = (Split) result;
+        long[] keys = insertAt(inner.keys, index, split.key);
+        Node[] children = insertAt(inner.children, index + 1, split.right);
+        children[index] = split.left;
+        if (children.length <= MAX) return new Inner(keys, children);
+
+        int middle = children.length / 2;
+        return new Split(new Inner(Arrays.copyOf(keys, middle - 1), Arrays.copyOf(children, middle)), keys[middle - 1],
+                new Inner(Arrays.copyOfRange(keys, middle, keys.length), Arrays.copyOfRange(children, middle, children.length)));
+    }
+
+    private Node delete(final Node node, final long key) {
+        if (node instanceof Leaf leaf) {
+            int index = Arrays.binarySearch(leaf.keys, key);
+            if (index < 0) return node;
+            displaced = leaf.values[index];
+            return new Leaf(removeAt(leaf.keys, index), removeAt(leaf.values, index));
+        }
+
+        Inner inner = (Inner) node;
+        int index = index(inner.keys, key);
+        Node child = inner.children[index];
+        Node updated = delete(child, key);
+        if (updated == child) return node;
+
+        Node[] children = inner.children.clone();
+        children[index] = updated;
+        if (updated.size() >= MIN || children.length == 1) return new Inner(inner.keys, children);
+
+        // refill the shrunken child from a sibling, merging both if they fit into one node
+        int left = index > 0 ? index - 1 : index;
+        Node[] merged = merge(children[left], inner.keys[left], children[left + 1]);
+        if (merged.length == 1) {
+            Node[] remaining = removeAt(children, left + 1);
+            remaining[left] = merged[0];
+            return new Inner(removeAt(inner.keys, left), remaining);
+        }
+
+        long[] keys = inner.keys.clone();
+        keys[left] = lowest(merged[1]);
+        children[left] = merged[0];
+        children[left + 1] = merged[1];
+        return new Inner(keys, children);
+    }
+
+    private static Node[] merge(final Node left, final long separator, final Node right) {
+        if (left instanceof Leaf low) {
+            Leaf high = (Leaf) right;
+            long[] keys = concat(low.keys, high.keys);
+            Object[] values = concat(low.values, high.values);
+            if (keys.length <= MAX) return new Node[]{new Leaf(keys, values)};
+
+            int middle = keys.length / 2;
+            return new Node[]{
+                    new Leaf(Arrays.copyOf(keys, middle), Arrays.copyOf(values, middle)),
+                    new Leaf(Arrays.copyOfRange(keys, middle, keys.length), Arrays.copyOfRange(values, middle, values.length))
+            };
+        }
+
+        Inner low = (Inner) left;
+        Inner high = (Inner) right;
+        long[] keys = concat(insertAt(low.keys, low.keys.length, separator), high.keys);
+        Node[] children = concat(low.children, high.children);
+        if (children.length <= MAX) return new Node[]{new Inner(keys, children)};
+
+        int middle = children.length / 2;
+        return new Node[]{
+                new Inner(Arrays.copyOf(keys, middle - 1), Arrays.copyOf(children, middle)),
+                new Inner(Arrays.copyOfRange(keys, middle, keys.length), Arrays.copyOfRange(children, middle, children.length))
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> floor(final Node node, final long key) {
+        if (node == null) return null;
+        if (node instanceof Leaf leaf) {
+            int index = Arrays.binarySearch(leaf.keys, key);
+            index = index >= 0 ? index : -index - 2;
+            return index >= 0 ? new Entry<>(leaf.keys[index], (V) leaf.values[index]) : null;
+        }
+
+        Inner inner = (Inner) node;
+        int index = index(inner.keys, key);
+        Entry<V> entry = floor(inner.children[index], key);
+        return entry == null && index > 0 ? edge(inner.children[index - 1], true) : entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> ceiling(final Node node, final long key) {
+        if (node == null) return null;
+        if (node instanceof Leaf leaf) {
+            int index = Arrays.binarySearch(leaf.keys, key);
+            index = index >= 0 ? index : -index - 1;
+            return index < leaf.keys.length ? new Entry<>(leaf.keys[index], (V) leaf.values[index]) : null;
+        }
+
+        Inner inner = (Inner) node;
+        int index = index(inner.keys, key);
+        Entry<V> entry = ceiling(inner.children[index], key);
+        return entry == null && index + 1 < inner.children.length ? edge(inner.children[index + 1], false) : entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> edge(Node node, final boolean last) {
+        while (node instanceof Inner inner)
+            node = inner.children[last ? inner.children.length - 1 : 0];
+
+        Leaf leaf = (Leaf) node;
+        if (leaf.keys.length == 0) return null;
+        int index = last ? leaf.keys.length - 1 : 0;
+        return new Entry<>(leaf.keys[index], (V) leaf.values[index]);
+    }
+
+    private static long lowest(Node node) {
+        while (node instanceof Inner inner)
+            node = inner.children[0];
+        return ((Leaf) node).keys[0];
+    }
+
+    /**
+     * Returns the index of the child covering the given key.
+     */
+    private static int index(final long[] keys, final long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static long[] insertAt(final long[] array, final int index, final long value) {
+        long[] copy = new long[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static <T> T[] insertAt(final T[] array, final int index, final T value) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        copy[index] = value;
+        return copy;
+    }
+
+    private static long[] removeAt(final long[] array, final int index) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    private static <T> T[] removeAt(final T[] array, final int index) {
+        T[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    private static long[] concat(final long[] a, final long[] b) {
+        long[] copy = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, copy, a.length, b.length);
+        return copy;
+    }
+
+    private static <T> T[] concat(final T[] a, final T[] b) {
+        T[] copy = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, copy, a.length, b.length);
+        return copy;
+    }
+
+    /**
+     * A forward cursor over a snapshot of the map.
+     * <p>
+     * A cursor starts before its first entry; every {@link #next()} moves it to the next entry,
+     * whose key and value are then available without boxing.
+     * </p>
+     *
+     * @param <V> the type of the values
+     */
+    public static final class Cursor<V> {
+
+        private final long upper;
+        private final boolean inclusive;
+        private Inner[] path = new Inner[8];
+        private int[] positions = new int[8];
+        private int top = -1;
+        private Leaf leaf;
+        private int position;
+        private long key;
+        private V value;
+
+        private Cursor(Node node, final long lower, final long upper, final boolean inclusive) {
+            this.upper = upper;
+            this.inclusive = inclusive;
+            if (node == null) return;
+
+            while (node instanceof Inner inner) {
+                int index = index(inner.keys, lower);
+                push(inner, index);
+                node = inner.children[index];
+            }
+            leaf = (Leaf) node;
+            int index = Arrays.binarySearch(leaf.keys, lower);
+            position = index >= 0 ? index : -index - 1;
+        }
+
+        /**
+         * Moves the cursor to the next entry.
+         *
+         * @return {@code true} if there is a next entry, {@code false} if the cursor is exhausted
+         */
+        @SuppressWarnings("unchecked")
+        public boolean next() {
+            while (leaf != null && position == leaf.keys.length) {
+                leaf = null;
+                while (top >= 0 && ++positions[top] == path[top].children.length)
+                    path[top--] = null;
+                if (top < 0) break;
+
+                Node node = path[top].children[positions[top]];
+                while (node instanceof Inner inner) {
+                    push(inner, 0);
+                    node = inner.children[0];
+                }
+                leaf = (Leaf) node;
+                position = 0;
+            }
+            if (leaf == null) return false;
+
+            long candidate = leaf.keys[position];
+            if (inclusive ? candidate > upper : candidate >= upper) {
+                leaf = null;
+                top = -1;
+                return false;
+            }
+            key = candidate;
+            value = (V) leaf.values[position++];
+            return true;
+        }
+
+        /**
+         * Returns the key of the current entry.
+         *
+         * @return the key
+         */
+        public long key() {
+            return key;
+        }
+
+        /**
+         * Returns the value of the current entry.
+         *
+         * @return the value, or {@code null} before the first call of {@link #next()}
+         */
+        public V value() {
+            return value;
+        }
+
+        private void push(final Inner inner, final int position) {
+            if (++top == path.length) {
+                path = Arrays.copyOf(path, top * 2);
+                positions = Arrays.copyOf(positions, top * 2);
+            }
+            path[top] = inner;
+            positions[top] = position;
+        }
+    }
+
+    private record Split(Node left, long key, Node right) { }
+
+    private abstract static sealed class Node permits Leaf, Inner {
+
+        abstract int size();
+    }
+
+    private static final class Leaf extends Node {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        private Leaf(final long[] keys, final Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        int size() {
+            return keys.length;
+        }
+    }
+
+    private static final class Inner extends Node {
+
+        private final long[] keys;
+        private final Node[] children;
+
+        private Inner(final long[] keys, final Node[] children) {
+            this.keys = keys;
+            this.children = children;
+        }
+
+        @Override
+        int size() {
+            return children.length;
+        }
+    }
+}
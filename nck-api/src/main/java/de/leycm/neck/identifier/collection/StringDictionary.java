@@ -0,0 +1,286 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.collection;
+
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.StringIdentifier;
+import lombok.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent dictionary that assigns every distinct {@link StringIdentifier} a dense
+ * {@link IntIdentifier} code.
+ * <p>
+ * Codes are handed out in insertion order starting at {@code 0} and never change, so they
+ * can be used directly as indices into primitive arrays or bitmaps. Encoding an already known
+ * string is a single lock-free hash lookup; only new strings take a short lock. Decoding is an
+ * array access.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * StringDictionary dictionary = new StringDictionary();
+ * int[] codes = dictionary.encodeAll(List.of("de", "en", "de")); // [0, 1, 0]
+ * StringIdentifier language = dictionary.decode(codes[1]);       // "string:en"
+ *
+ * try (OutputStream out = Files.newOutputStream(path)) {
+ *     dictionary.writeTo(out);
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. A code returned by any encode method
+ * can be decoded by every thread.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IntIdentifier
+ * @see StringIdentifier
+ */
+public final class StringDictionary {
+
+    /**
+     * The code returned by {@link #lookup(String)} for unknown strings.
+     */
+    public static final int MISSING = -1;
+
+    private static final int MAGIC = 0x4E434B44; // "NCKD"
+    private static final int VERSION = 1;
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    private final Map<String, Integer> codes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile StringIdentifier[] values;
+    private volatile int size;
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    public StringDictionary() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty dictionary sized for the given number of distinct strings.
+     *
+     * @param expectedSize the expected number of distinct strings
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public StringDictionary(final int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("The expected size must not be negative");
+        this.codes = new ConcurrentHashMap<>(Math.max(16, expectedSize));
+        this.values = new StringIdentifier[Math.max(16, expectedSize)];
+    }
+
+    /**
+     * Returns the code of the given identifier, assigning the next free code if it is new.
+     *
+     * @param identifier the identifier to encode
+     * @return the code as identifier
+     */
+    public @NonNull IntIdentifier encode(final @NonNull StringIdentifier identifier) {
+        return new IntIdentifier(code(identifier.value()));
+    }
+
+    /**
+     * Returns the code of the given string, assigning the next free code if it is new.
+     *
+     * @param value the string to encode
+     * @return the code, between {@code 0} and {@link #size()}
+     * @throws IllegalStateException if the dictionary cannot take any more strings
+     */
+    public int code(final @NonNull String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;
+
+        lock.lock();
+        try {
+            return assign(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes all given strings, assigning codes to new ones in iteration order.
+     * The lock is taken once for the whole batch, which makes this the fastest way
+     * to bulk-load a dictionary.
+     *
+     * @param values the strings to encode
+     * @return the codes in iteration order of the strings
+     */
+    public int[] encodeAll(final @NonNull Collection<String> values) {
+        int[] result = new int[values.size()];
+        int index = 0;
+
+        lock.lock();
+        try {
+            for (String value : values) {
+                Integer code = codes.get(value);
+                result[index++] = code != null ? code : assign(value);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return index == result.length ? result : Arrays.copyOf(result, index);
+    }
+
+    /**
+     * Returns the code of the given string without assigning one.
+     *
+     * @param value the string to look up
+     * @return the code, or {@link #MISSING} if the string is unknown
+     */
+    public int lookup(final @NonNull String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : MISSING;
+    }
+
+    /**
+     * Checks whether the given identifier has a code.
+     *
+     * @param identifier the identifier to check
+     * @return {@code true} if the identifier was encoded before
+     */
+    public boolean contains(final @NonNull StringIdentifier identifier) {
+        return codes.containsKey(identifier.value());
+    }
+
+    /**
+     * Returns the identifier for the given code.
+     *
+     * @param code the code to decode
+     * @return the identifier the code was assigned to
+     * @throws IndexOutOfBoundsException if the code was never assigned
+     */
+    public @NonNull StringIdentifier decode(final int code) {
+        int size = this.size;
+        if (code < 0 || code >= size)
+            throw new IndexOutOfBoundsException("Code " + code + " is not assigned, dictionary size is " + size);
+        return values[code];
+    }
+
+    /**
+     * Returns the identifier for the given code.
+     *
+     * @param code the code to decode
+     * @return the identifier the code was assigned to
+     * @throws IndexOutOfBoundsException if the code was never assigned
+     */
+    public @NonNull StringIdentifier decode(final @NonNull IntIdentifier code) {
+        return decode(code.intValue());
+    }
+
+    /**
+     * Returns the number of assigned codes. Codes are always {@code 0} to {@code size() - 1}.
+     *
+     * @return the number of distinct strings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the dictionary in code order. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final @NonNull OutputStream out) throws IOException {
+        int size = this.size;
+        StringIdentifier[] values = this.values;
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = values[i].value().getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a dictionary written by {@link #writeTo(OutputStream)}. Every string gets
+     * the code it had when it was written. Exactly the dictionary bytes are consumed and the
+     * stream is not closed, so pass a buffered stream for large dictionaries.
+     *
+     * @param in the stream to read from
+     * @return the restored dictionary
+     * @throws IOException if reading fails or the stream holds no dictionary
+     */
+    public static @NonNull StringDictionary readFrom(final @NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("The stream does not contain a dictionary");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Unsupported dictionary version " + version);
+
+        int size = data.readInt();
+        if (size < 0 || size > MAX_SIZE) throw new IOException("Corrupt dictionary size " + size);
+
+        // the header is untrusted, so only presize a bounded amount and grow while reading
+        StringDictionary dictionary = new StringDictionary(Math.min(size, MAX_PRESIZE));
+        dictionary.lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int length = data.readInt();
+                if (length < 0) throw new IOException("Corrupt entry length " + length + " at code " + i);
+                byte[] bytes = data.readNBytes(length);
+                if (bytes.length != length) throw new EOFException("Truncated entry at code " + i);
+                if (dictionary.assign(new String(bytes, StandardCharsets.UTF_8)) != i)
+                    throw new IOException("Duplicate entry at code " + i);
+            }
+        } finally {
+            dictionary.lock.unlock();
+        }
+        return dictionary;
+    }
+
+    /**
+     * Assigns the next code to the value unless it already has one.
+     * Must be called while holding the lock.
+     */
+    private int assign(final String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) return existing;
+
+        int code = size;
+        if (code == MAX_SIZE) throw new IllegalStateException("The dictionary is full");
+
+        StringIdentifier[] values = this.values;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(MAX_SIZE, values.length * 2L));
+            this.values = values;
+        }
+
+        // publish the reverse entry before the code becomes visible
+        values[code] = new StringIdentifier(value);
+        size = code + 1;
+        codes.put(value, code);
+        return code;
+    }
+}
@@ -0,0 +1,376 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.concurrent;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+
+/**
+ * A lock-free rate limiter with an independent quota per {@link Identifier}.
+ * <p>
+ * Every identifier gets the generic cell rate algorithm (GCRA), the token bucket expressed as
+ * a single timestamp: the theoretical arrival time of the next request. The timestamps live
+ * next to the {@link IdentifierHash} of their identifier in one primitive array with open
+ * addressing and are advanced with compare-and-set, so deciding a request neither locks nor
+ * allocates, and threads limiting different identifiers never contend. An identifier whose
+ * bucket has refilled completely is idle: its slot is taken over by the next new identifier
+ * that needs one, so no sweeping is needed.
+ * </p>
+ * <p>
+ * Identifiers are told apart by their 64 bit hash only. The number of identifiers that can be
+ * limited at the same time is bounded by the {@link #withCapacity(int) capacity}. When a new
+ * identifier finds no free or idle slot, the {@link Overflow overflow policy} decides: deny it
+ * (the default), allow it without limiting, or evict the identifier closest to being idle.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierRateLimiter limiter = IdentifierRateLimiter.create(100, Duration.ofSeconds(1))
+ *         .withBurst(20)
+ *         .withOverflow(IdentifierRateLimiter.Overflow.EVICT_OLDEST);
+ *
+ * if (!limiter.tryAcquire(tenantId))
+ *     return Response.tooManyRequests(limiter.retryAfterNanos(tenantId));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe and lock-free.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierHash
+ */
+public final class IdentifierRateLimiter {
+
+    /**
+     * The number of identifiers used by {@link #create(long, Duration)}.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle USED;
+    private static final long EMPTY = 0L;
+    private static final long EVICTED = Long.MIN_VALUE;
+    private static final int MAX_PROBE = 32;
+
+    /**
+     * The hash of slot {@code i} at {@code 2i}, its theoretical arrival time at {@code 2i + 1},
+     * so both share a cache line.
+     */
+    private final long[] slots;
+    private final int mask;
+    private final long permits;
+    private final long periodNanos;
+    private final long burst;
+    private final int capacity;
+    private final Overflow overflow;
+    private final long interval;
+    private final long tolerance;
+    private final long origin = System.nanoTime();
+    @SuppressWarnings("unused") // accessed through USED
+    private volatile int used; // slots holding a hash, at most the capacity
+
+    static {
+        try {
+            USED = MethodHandles.lookup().findVarHandle(IdentifierRateLimiter.class, "used", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private IdentifierRateLimiter(final long permits, final long periodNanos, final long burst,
+                                  final int capacity, final Overflow overflow) {
+        this.permits = permits;
+        this.periodNanos = periodNanos;
+        this.burst = burst;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.interval = Math.max(1L, periodNanos / permits);
+        if (burst > Long.MAX_VALUE / interval) throw new IllegalArgumentException("The burst is too large");
+        this.tolerance = interval * burst;
+
+        // at most half full, so probes stay short; the capacity itself is enforced by counting
+        int size = Integer.highestOneBit(capacity * 2 - 1) * 2;
+        this.slots = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Creates a limiter allowing every identifier the given number of permits per period,
+     * all of which may be used at once.
+     *
+     * @param permits the permits per period
+     * @param period  the period
+     * @return the new limiter
+     * @throws IllegalArgumentException if the permits or the period are not positive
+     */
+    public static @NonNull IdentifierRateLimiter create(final long permits, final @NonNull Duration period) {
+        if (permits <= 0L) throw new IllegalArgumentException("The permits must be positive");
+        if (period.isNegative() || period.isZero()) throw new IllegalArgumentException("The period must be positive");
+        return new IdentifierRateLimiter(permits, period.toNanos(), permits, DEFAULT_CAPACITY, Overflow.DENY);
+    }
+
+    /**
+     * Returns a copy of this limiter that allows bursts of the given number of permits.
+     * The copy starts without any state.
+     *
+     * @param burst the permits an idle identifier may use at once
+     * @return the new limiter
+     * @throws IllegalArgumentException if the burst is not positive
+     */
+    public @NonNull IdentifierRateLimiter withBurst(final long burst) {
+        if (burst <= 0L) throw new IllegalArgumentException("The burst must be positive");
+        return new IdentifierRateLimiter(permits, periodNanos, burst, capacity, overflow);
+    }
+
+    /**
+     * Returns a copy of this limiter that can limit the given number of identifiers at the
+     * same time. The copy starts without any state.
+     *
+     * @param capacity the number of identifiers
+     * @return the new limiter
+     * @throws IllegalArgumentException if the capacity is not between {@code 1} and {@code 2^28}
+     */
+    public @NonNull IdentifierRateLimiter withCapacity(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 28) throw new IllegalArgumentException("The capacity must be between 1 and 2^28");
+        return new IdentifierRateLimiter(permits, periodNanos, burst, capacity, overflow);
+    }
+
+    /**
+     * Returns a copy of this limiter that handles identifiers without a slot with the given
+     * policy. The copy starts without any state.
+     *
+     * @param overflow the policy for identifiers beyond the capacity
+     * @return the new limiter
+     */
+    public @NonNull IdentifierRateLimiter withOverflow(final @NonNull Overflow overflow) {
+        return new IdentifierRateLimiter(permits, periodNanos, burst, capacity, overflow);
+    }
+
+    /**
+     * Takes one permit for the given identifier if it is available.
+     *
+     * @param identifier the identifier to limit
+     * @return {@code true} if the request is allowed
+     */
+    public boolean tryAcquire(final @NonNull Identifier<?> identifier) {
+        return tryAcquire(identifier, 1);
+    }
+
+    /**
+     * Takes permits for the given identifier if they are available.
+     *
+     * @param identifier the identifier to limit
+     * @param permits    the number of permits
+     * @return {@code true} if the request is allowed, always {@code false} for more permits than the burst
+     * @see Overflow
+     * @throws IllegalArgumentException if the number of permits is negative
+     */
+    public boolean tryAcquire(final @NonNull Identifier<?> identifier, final int permits) {
+        if (permits < 0) throw new IllegalArgumentException("The permits must not be negative");
+        if (permits > burst) return false;
+
+        long now = now();
+        int slot = claim(hash(identifier), now);
+        if (slot < 0) return overflow == Overflow.ALLOW;
+
+        int index = slot * 2 + 1;
+        long cost = interval * permits;
+        while (true) {
+            long arrival = (long) SLOTS.getVolatile(slots, index);
+            long next = Math.max(arrival, now) + cost;
+            if (next - now > tolerance) return false;
+            if (SLOTS.compareAndSet(slots, index, arrival, next)) return true;
+        }
+    }
+
+    /**
+     * Takes one permit for the identifier of the given object if it is available.
+     *
+     * @param identifiable the object to limit
+     * @return {@code true} if the request is allowed
+     * @see #tryAcquire(Identifier)
+     */
+    public boolean tryAcquire(final @NonNull Identifiable<?, ?> identifiable) {
+        return tryAcquire(identifiable.identifier(), 1);
+    }
+
+    /**
+     * Returns how long the given identifier has to wait until one permit is available.
+     *
+     * @param identifier the identifier to look up
+     * @return the time to wait in nanoseconds, {@code 0} if a permit is available now
+     */
+    public long retryAfterNanos(final @NonNull Identifier<?> identifier) {
+        long now = now();
+        int slot = find(hash(identifier));
+        if (slot < 0) return 0L;
+
+        long arrival = (long) SLOTS.getVolatile(slots, slot * 2 + 1);
+        return Math.max(0L, arrival - now - (tolerance - interval));
+    }
+
+    /**
+     * Returns the number of identifiers whose buckets are not full, scanning all slots.
+     *
+     * @return the number of active identifiers
+     */
+    public int activeKeys() {
+        long now = now();
+        int active = 0;
+        for (int i = 0; i < slots.length; i += 2)
+            if ((long) SLOTS.getOpaque(slots, i) != EMPTY && (long) SLOTS.getOpaque(slots, i) != EVICTED
+                    && (long) SLOTS.getOpaque(slots, i + 1) > now) active++;
+        return active;
+    }
+
+    /**
+     * Returns a string representation of this limiter.
+     * <p>
+     * The format is: {@code "IdentifierRateLimiter{permits=" + permits + ", period=" + period + ", burst=" + burst + ", overflow=" + overflow + "}"}
+     * </p>
+     *
+     * @return a string representation containing the rate, burst and overflow policy
+     */
+    @Override
+    public String toString() {
+        return "IdentifierRateLimiter{permits=" + permits + ", period=" + Duration.ofNanos(periodNanos)
+                + ", burst=" + burst + ", overflow=" + overflow + "}";
+    }
+
+    /**
+     * Returns the slot of the given hash, taking over an empty, evicted or idle slot if it has
+     * none, or {@code -1} if no slot is available. Empty and evicted slots are only taken while
+     * fewer than the capacity are in use.
+     */
+    private int claim(final long hash, final long now) {
+        while (true) {
+            int home = (int) hash & mask;
+            int free = -1;
+            long previous = EMPTY;
+            for (int probe = 0; probe < MAX_PROBE; probe++) {
+                int slot = (home + probe) & mask;
+                long stored = (long) SLOTS.getVolatile(slots, slot * 2);
+                if (stored == hash) return slot;
+                if (stored == EMPTY || stored == EVICTED) {
+                    if (free < 0 && used < capacity) {
+                        free = slot;
+                        previous = stored;
+                    }
+                    if (stored == EMPTY) break; // slots are never emptied, so the hash is not further along
+                } else if (free < 0 && (long) SLOTS.getVolatile(slots, slot * 2 + 1) <= now) {
+                    // an idle bucket is full, which is just what a new identifier starts with
+                    free = slot;
+                    previous = stored;
+                }
+            }
+
+            if (free >= 0) {
+                boolean counted = previous == EMPTY || previous == EVICTED;
+                if (counted && !reserve()) continue;
+                if (SLOTS.compareAndSet(slots, free * 2, previous, hash)) return free;
+                if (counted) USED.getAndAdd(this, -1);
+            } else if (!evict(home, overflow == Overflow.EVICT_OLDEST ? Long.MAX_VALUE : now)) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Evicts the slot near the given one that is closest to idle, freeing one unit of
+     * capacity. Only slots whose arrival time is at most the given limit are evicted, idle
+     * ones are always fair game. Returns {@code false} if there is no slot to evict.
+     */
+    private boolean evict(final int home, final long limit) {
+        int oldest = -1;
+        long oldestHash = EMPTY, oldestArrival = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            int slot = (home + probe) & mask;
+            long stored = (long) SLOTS.getVolatile(slots, slot * 2);
+            if (stored == EMPTY || stored == EVICTED) continue;
+
+            long arrival = (long) SLOTS.getVolatile(slots, slot * 2 + 1);
+            if (arrival < oldestArrival) {
+                oldest = slot;
+                oldestHash = stored;
+                oldestArrival = arrival;
+            }
+        }
+        if (oldest < 0 || oldestArrival > limit) return false;
+
+        // evicted slots keep probes going, unlike empty ones, and are reused with a full bucket
+        if (SLOTS.compareAndSet(slots, oldest * 2, oldestHash, EVICTED)) {
+            SLOTS.setVolatile(slots, oldest * 2 + 1, 0L);
+            USED.getAndAdd(this, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Counts one more slot in use, unless the capacity is reached.
+     */
+    private boolean reserve() {
+        int current;
+        do {
+            current = used;
+            if (current >= capacity) return false;
+        } while (!USED.compareAndSet(this, current, current + 1));
+        return true;
+    }
+
+    private int find(final long hash) {
+        int home = (int) hash & mask;
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            int slot = (home + probe) & mask;
+            long stored = (long) SLOTS.getVolatile(slots, slot * 2);
+            if (stored == hash) return slot;
+            if (stored == EMPTY) return -1;
+        }
+        return -1;
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    private static long hash(final Identifier<?> identifier) {
+        long hash = IdentifierHash.hash64(identifier);
+        return hash == EMPTY || hash == EVICTED ? 1L : hash;
+    }
+
+    /**
+     * What happens to a request of an identifier that finds no slot, because the capacity is
+     * reached and no slot it may use is idle.
+     */
+    public enum Overflow {
+
+        /**
+         * Denies the request, so identifiers beyond the capacity wait until slots become idle.
+         */
+        DENY,
+
+        /**
+         * Allows the request without limiting it.
+         */
+        ALLOW,
+
+        /**
+         * Evicts the identifier closest to being idle among the slots near the new one. The
+         * evicted identifier starts over with a full bucket on its next request.
+         */
+        EVICT_OLDEST
+    }
+}
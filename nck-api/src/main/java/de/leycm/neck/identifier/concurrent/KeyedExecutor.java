@@ -0,0 +1,283 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.concurrent;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.result.Result;
+import lombok.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * An executor that runs the tasks of one {@link Identifier} strictly in submission order
+ * while tasks of different identifiers run in parallel.
+ * <p>
+ * Every identifier with queued tasks owns a lane that drains its tasks one after another on
+ * the underlying executor. A lane only exists while its identifier has work: it is created by
+ * the first submission and removed once its queue ran empty, so idle identifiers cost nothing
+ * and the executor never leaks entries. Lanes are kept in a {@link ConcurrentHashMap}, so
+ * submissions for different identifiers never contend on a shared lock.
+ * </p>
+ * <p>
+ * A lane runs at most {@value #BATCH} tasks before it yields its thread to other lanes, which
+ * keeps a busy identifier from starving the others on a bounded pool.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * try (KeyedExecutor executor = KeyedExecutor.ofVirtualThreads()) {
+ *     executor.execute(account.identifier(), () -> account.deposit(10));
+ *     executor.execute(account.identifier(), () -> account.withdraw(5)); // runs after the deposit
+ *     CompletableFuture<Result<Long>> balance = executor.submit(account, account::balance);
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Identifier
+ */
+public final class KeyedExecutor implements AutoCloseable {
+
+    /**
+     * The number of tasks a lane runs before yielding its thread.
+     */
+    public static final int BATCH = 64;
+
+    private final Executor executor;
+    private final boolean owned;
+    private final ConcurrentHashMap<Identifier<?>, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    private volatile boolean closed;
+
+    private KeyedExecutor(final Executor executor, final boolean owned) {
+        this.executor = executor;
+        this.owned = owned;
+    }
+
+    /**
+     * Creates a keyed executor that drains every lane on its own virtual thread.
+     * The virtual thread executor is closed together with the keyed executor.
+     *
+     * @return the new executor
+     */
+    public static @NonNull KeyedExecutor ofVirtualThreads() {
+        return new KeyedExecutor(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("neck-keyed-", 0).factory()), true);
+    }
+
+    /**
+     * Creates a keyed executor that drains its lanes on the common {@link ForkJoinPool}.
+     *
+     * @return the new executor
+     */
+    public static @NonNull KeyedExecutor ofCommonPool() {
+        return new KeyedExecutor(ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Creates a keyed executor that drains its lanes on the given executor.
+     * The executor is not shut down when the keyed executor is closed.
+     *
+     * @param executor the executor running the lanes
+     * @return the new executor
+     */
+    public static @NonNull KeyedExecutor of(final @NonNull Executor executor) {
+        return new KeyedExecutor(executor, false);
+    }
+
+    /**
+     * Runs the task after all tasks previously submitted for the same identifier.
+     * Exceptions thrown by the task are passed to the uncaught exception handler of the
+     * running thread and do not stop the lane.
+     *
+     * @param key  the identifier the task belongs to
+     * @param task the task to run
+     * @throws RejectedExecutionException if the executor was closed
+     */
+    public void execute(final @NonNull Identifier<?> key, final @NonNull Runnable task) {
+        if (closed) throw new RejectedExecutionException("The keyed executor is closed");
+
+        boolean[] created = new boolean[1];
+        Lane lane = lanes.compute(key, (k, existing) -> {
+            Lane target = existing;
+            if (target == null) {
+                target = new Lane(k);
+                created[0] = true;
+            }
+            target.tasks.add(task);
+            return target;
+        });
+
+        if (created[0]) schedule(lane);
+    }
+
+    /**
+     * Runs the task after all tasks previously submitted for the identifier of the given object.
+     *
+     * @param key  the object the task belongs to
+     * @param task the task to run
+     * @throws RejectedExecutionException if the executor was closed
+     * @see #execute(Identifier, Runnable)
+     */
+    public void execute(final @NonNull Identifiable<?, ?> key, final @NonNull Runnable task) {
+        execute(key.identifier(), task);
+    }
+
+    /**
+     * Runs the supplier after all tasks previously submitted for the same identifier and
+     * completes the returned future with its result. Exceptions thrown by the supplier are
+     * captured as with {@link Result#result(Supplier)}.
+     *
+     * @param key      the identifier the task belongs to
+     * @param supplier the task to run
+     * @param <T>      the type of the value
+     * @return a future completed with the result of the supplier
+     * @throws RejectedExecutionException if the executor was closed
+     */
+    public <T> @NonNull CompletableFuture<Result<T>> submit(final @NonNull Identifier<?> key,
+                                                           final @NonNull Supplier<T> supplier) {
+        CompletableFuture<Result<T>> future = new CompletableFuture<>();
+        execute(key, () -> future.complete(Result.result(supplier)));
+        return future;
+    }
+
+    /**
+     * Runs the supplier after all tasks previously submitted for the identifier of the given object.
+     *
+     * @param key      the object the task belongs to
+     * @param supplier the task to run
+     * @param <T>      the type of the value
+     * @return a future completed with the result of the supplier
+     * @throws RejectedExecutionException if the executor was closed
+     * @see #submit(Identifier, Supplier)
+     */
+    public <T> @NonNull CompletableFuture<Result<T>> submit(final @NonNull Identifiable<?, ?> key,
+                                                           final @NonNull Supplier<T> supplier) {
+        return submit(key.identifier(), supplier);
+    }
+
+    /**
+     * Returns the number of identifiers that currently have queued or running tasks.
+     *
+     * @return the number of active lanes
+     */
+    public int activeKeys() {
+        return lanes.size();
+    }
+
+    /**
+     * Rejects new tasks and waits until every queued task has run. An executor created
+     * by {@link #ofVirtualThreads()} is closed afterwards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        lock.lock();
+        try {
+            while (!lanes.isEmpty())
+                idle.awaitUninterruptibly();
+        } finally {
+            lock.unlock();
+        }
+
+        if (owned && executor instanceof ExecutorService service) service.close();
+    }
+
+    private void schedule(final Lane lane) {
+        try {
+            executor.execute(lane);
+        } catch (RejectedExecutionException e) {
+            // the underlying executor is gone, keep the ordering guarantee by draining here
+            lane.run();
+        }
+    }
+
+    private void removed() {
+        if (!closed) return;
+
+        lock.lock();
+        try {
+            idle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The queued tasks of one identifier, drained by at most one thread at a time.
+     */
+    private final class Lane implements Runnable {
+
+        private final Identifier<?> key;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private Lane(final Identifier<?> key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            while (drain()) {
+                try {
+                    executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // the underlying executor is gone, keep draining on this thread
+                }
+            }
+        }
+
+        /**
+         * Runs up to {@link #BATCH} tasks.
+         *
+         * @return {@code true} if tasks are left, {@code false} if the lane was removed
+         */
+        private boolean drain() {
+            for (int ran = 0; ran < BATCH; ) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    // tasks are only added inside compute, so this check and the removal are atomic
+                    if (lanes.compute(key, (k, lane) -> lane == this && tasks.isEmpty() ? null : lane) != this) {
+                        removed();
+                        return false;
+                    }
+                    continue;
+                }
+
+                ran++;
+                try {
+                    task.run();
+                } catch (Throwable throwable) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.concurrent;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.result.Result;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of a {@link Result} for the same {@link Identifier}.
+ * <p>
+ * The first caller of {@link #load(Identifier, Supplier)} for an identifier becomes the leader
+ * and runs the loader on its own thread; every caller arriving while the computation is in
+ * flight waits for it and receives the very same result, whether it is a success, empty or a
+ * failure. Once the computation completed, the next caller starts a new one, unless a failure
+ * TTL is configured: failures are then handed out for that long without calling the loader
+ * again, which keeps a failing backend from being hammered.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * SingleFlight<Profile> profiles = SingleFlight.<Profile>create()
+ *         .withFailureTtl(Duration.ofSeconds(1));
+ *
+ * Result<Profile> profile = profiles.load(userId, () -> database.loadProfile(userId));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. A loader must not load the
+ * identifier it is computing, the caller would wait for itself.</p>
+ *
+ * @param <T> the type of the loaded values
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result#result(Supplier)
+ */
+public final class SingleFlight<T> {
+
+    private final ConcurrentHashMap<Identifier<?>, Flight<T>> flights = new ConcurrentHashMap<>();
+    private final long failureTtlNanos;
+
+    private SingleFlight(final long failureTtlNanos) {
+        this.failureTtlNanos = failureTtlNanos;
+    }
+
+    /**
+     * Creates a single-flight loader without failure caching.
+     *
+     * @param <T> the type of the loaded values
+     * @return the new loader
+     */
+    public static <T> @NonNull SingleFlight<T> create() {
+        return new SingleFlight<>(0L);
+    }
+
+    /**
+     * Returns a copy of this loader that keeps failed results for the given duration.
+     * The copy does not share in-flight computations with this loader.
+     *
+     * @param ttl how long a failure is returned without calling the loader again, zero disables caching
+     * @return the new loader
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public @NonNull SingleFlight<T> withFailureTtl(final @NonNull Duration ttl) {
+        if (ttl.isNegative()) throw new IllegalArgumentException("The failure TTL must not be negative");
+        return new SingleFlight<>(ttl.toNanos());
+    }
+
+    /**
+     * Returns the result for the given identifier, computing it with the loader unless a
+     * computation for the identifier is already in flight or a failure is still cached.
+     * Exceptions thrown by the loader are captured as with {@link Result#result(Supplier)}.
+     *
+     * @param key    the identifier to load
+     * @param loader computes the value, only called by the leading caller
+     * @return the shared result
+     */
+    public @NonNull Result<T> load(final @NonNull Identifier<?> key, final @NonNull Supplier<T> loader) {
+        while (true) {
+            Flight<T> flight = flights.get(key);
+            if (flight != null) {
+                if (flight.isExpired()) {
+                    flights.remove(key, flight);
+                    continue;
+                }
+                return flight.future.join();
+            }
+
+            Flight<T> own = new Flight<>();
+            if (flights.putIfAbsent(key, own) != null) continue;
+            return lead(key, own, loader);
+        }
+    }
+
+    /**
+     * Returns the result for the identifier of the given object.
+     *
+     * @param key    the object to load
+     * @param loader computes the value, only called by the leading caller
+     * @return the shared result
+     * @see #load(Identifier, Supplier)
+     */
+    public @NonNull Result<T> load(final @NonNull Identifiable<?, ?> key, final @NonNull Supplier<T> loader) {
+        return load(key.identifier(), loader);
+    }
+
+    /**
+     * Drops a cached failure for the given identifier, so the next call computes again.
+     * An in-flight computation is not affected.
+     *
+     * @param key the identifier to forget
+     */
+    public void forget(final @NonNull Identifier<?> key) {
+        Flight<T> flight = flights.get(key);
+        if (flight != null && flight.future.isDone()) flights.remove(key, flight);
+    }
+
+    /**
+     * Returns the number of identifiers that are in flight or have a cached failure.
+     *
+     * @return the number of tracked identifiers
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    private Result<T> lead(final Identifier<?> key, final Flight<T> flight, final Supplier<T> loader) {
+        Result<T> result = Result.result(loader);
+
+        boolean cache = result.hasThrew() && failureTtlNanos > 0L;
+        if (cache) {
+            flight.expiresAt = System.nanoTime() + failureTtlNanos;
+            flight.cached = true;
+        }
+        flight.future.complete(result);
+
+        if (!cache) flights.remove(key, flight);
+        else CompletableFuture.delayedExecutor(failureTtlNanos, TimeUnit.NANOSECONDS)
+                .execute(() -> flights.remove(key, flight));
+        return result;
+    }
+
+    /**
+     * A single computation shared by all callers of one identifier.
+     */
+    private static final class Flight<T> {
+
+        private final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+        private volatile boolean cached;
+
+        private boolean isExpired() {
+            return cached && System.nanoTime() - expiresAt >= 0L;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.hash;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.type.CompactStringIdentifier;
+import de.leycm.neck.identifier.type.DoubleIdentifier;
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.LongIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import de.leycm.neck.identifier.type.StringIdentifier;
+import de.leycm.neck.identifier.type.UUIDIdentifier;
+import lombok.NonNull;
+
+import java.util.UUID;
+
+/**
+ * Stable, well-mixed 64 bit hashes for {@link Identifier}s.
+ * <p>
+ * Unlike {@link Object#hashCode()} these hashes are specified: they are identical on every
+ * JVM and every run, so they can be persisted in filters and sketches or used to route keys
+ * between processes. Every identifier type is hashed from its raw value without boxing.
+ * Numeric identifiers hash their value as {@code long}, so an {@link IntIdentifier} and a
+ * {@link LongIdentifier} of the same value have the same hash. Strings are hashed from their
+ * UTF-16 code units.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * long hash = IdentifierHash.hash64(new StringIdentifier("user-123"));
+ * int bucket = (int) Math.floorMod(hash, 64L);
+ * }</pre>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Identifier
+ */
+public final class IdentifierHash {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+    private IdentifierHash() { }
+
+    /**
+     * Returns the stable hash of the given identifier.
+     * <p>
+     * Identifier types outside of {@code de.leycm.neck.identifier.type} fall back to the
+     * {@code hashCode()} of their original value, which is only stable if that hash code is.
+     * </p>
+     *
+     * @param identifier the identifier to hash
+     * @return the 64 bit hash
+     */
+    public static long hash64(final @NonNull Identifier<?> identifier) {
+        return switch (identifier) {
+            case IntIdentifier id -> hash64(id.longValue());
+            case LongIdentifier id -> hash64(id.longValue());
+            case ShortIdentifier id -> hash64(id.longValue());
+            case DoubleIdentifier id -> hash64(id.doubleValue());
+            case UUIDIdentifier id -> hash64(id.value());
+            case StringIdentifier id -> hash64(id.value());
+            case CompactStringIdentifier id -> id.isAscii() ? hash64(id, PRIME_4) : hash64(id.original());
+            default -> hash64((long) identifier.original().hashCode());
+        };
+    }
+
+    /**
+     * Returns the stable hash of a {@code long} value.
+     *
+     * @param value the value to hash
+     * @return the 64 bit hash
+     */
+    public static long hash64(final long value) {
+        long hash = (value ^ PRIME_3) * PRIME_1;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Returns the stable hash of a {@code double} value, based on {@link Double#doubleToLongBits(double)}.
+     *
+     * @param value the value to hash
+     * @return the 64 bit hash
+     */
+    public static long hash64(final double value) {
+        return hash64(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Returns the stable hash of a {@link UUID}.
+     *
+     * @param value the value to hash
+     * @return the 64 bit hash
+     */
+    public static long hash64(final @NonNull UUID value) {
+        return hash64(value.getLeastSignificantBits() ^ hash64(value.getMostSignificantBits()));
+    }
+
+    /**
+     * Returns the stable hash of the UTF-16 code units of a string.
+     *
+     * @param value the value to hash
+     * @return the 64 bit hash
+     */
+    public static long hash64(final @NonNull String value) {
+        return hash64(value, PRIME_4);
+    }
+
+    /**
+     * Returns a seeded hash of the UTF-16 code units of a character sequence. Hashes of
+     * different seeds are independent, so several of them can be combined into a wider hash.
+     *
+     * @param value the value to hash
+     * @param seed  the seed
+     * @return the 64 bit hash
+     */
+    public static long hash64(final @NonNull CharSequence value, final long seed) {
+        int length = value.length();
+        long hash = seed + length * PRIME_1;
+
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long block = value.charAt(i)
+                    | (long) value.charAt(i + 1) << 16
+                    | (long) value.charAt(i + 2) << 32
+                    | (long) value.charAt(i + 3) << 48;
+            hash = Long.rotateLeft(hash ^ round(block), 27) * PRIME_1 + PRIME_4;
+        }
+
+        long tail = 0L;
+        for (int shift = 0; i < length; i++, shift += 16)
+            tail |= (long) value.charAt(i) << shift;
+        hash ^= round(tail);
+
+        hash = (hash ^ (hash >>> 33)) * PRIME_2;
+        hash = (hash ^ (hash >>> 29)) * PRIME_3;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static long round(final long block) {
+        return Long.rotateLeft(block * PRIME_2, 31) * PRIME_1;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.hash;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.type.CompactStringIdentifier;
+import de.leycm.neck.identifier.type.DoubleIdentifier;
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.LongIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import de.leycm.neck.identifier.type.StringIdentifier;
+import de.leycm.neck.identifier.type.UUIDIdentifier;
+import lombok.NonNull;
+
+import java.util.UUID;
+
+/**
+ * The canonical fixed-width 128 bit form of an {@link Identifier} of any type.
+ * <p>
+ * {@link UUIDIdentifier}s with a non-zero version nibble keep their raw bits. Numeric identifiers
+ * store a type tag in {@link #high()} and their raw value in {@link #low()}, so they are exact and an
+ * {@link IntIdentifier} never equals a {@link LongIdentifier} of the same value. Strings, and
+ * identifier types outside of {@code de.leycm.neck.identifier.type}, are {@link #hashed()}
+ * into 112 bits; whoever relies on such keys must check the original identifier to rule out
+ * collisions, as {@link de.leycm.neck.identifier.collection.IdentifierKeyMap} does. A
+ * {@link StringIdentifier} and a {@link CompactStringIdentifier} of the same value share
+ * their key.
+ * </p>
+ * <p>
+ * Tags and hashes keep the version nibble of {@link #high()} at zero, which no raw UUID key has:
+ * UUIDs with a version nibble of zero, such as the nil UUID or {@code new UUID(1, 42)}, are
+ * {@link #hashed()} like strings. A tagged key is therefore always the exact value of a numeric
+ * identifier and never collides with the key of any other identifier.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IdentifierKey key = IdentifierKey.of(new LongIdentifier(42L));
+ * long high = key.high(); // the tag of LongIdentifier
+ * long low = key.low();   // 42
+ * boolean exact = !key.hashed();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This record is immutable and thread-safe.</p>
+ *
+ * @param high the upper 64 bits
+ * @param low  the lower 64 bits
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierHash
+ */
+public record IdentifierKey(long high, long low) implements Comparable<IdentifierKey> {
+
+    private static final long TAG_MASK = 0xFFFFL;
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long TAG_LONG = 1L;
+    private static final long TAG_INT = 2L;
+    private static final long TAG_SHORT = 3L;
+    private static final long TAG_DOUBLE = 4L;
+    private static final long TAG_HASH = 5L;
+
+    private static final long SEED_HIGH = 0x27D4EB2F165667C5L;
+    private static final long SEED_LOW = 0x61C8864680B583EBL;
+
+    /**
+     * Returns the canonical key of the given identifier.
+     *
+     * @param identifier the identifier
+     * @return the 128 bit key
+     */
+    public static @NonNull IdentifierKey of(final @NonNull Identifier<?> identifier) {
+        return switch (identifier) {
+            case UUIDIdentifier id -> uuid(id.value());
+            case LongIdentifier id -> new IdentifierKey(TAG_LONG, id.longValue());
+            case IntIdentifier id -> new IdentifierKey(TAG_INT, id.longValue());
+            case ShortIdentifier id -> new IdentifierKey(TAG_SHORT, id.longValue());
+            case DoubleIdentifier id -> new IdentifierKey(TAG_DOUBLE, Double.doubleToLongBits(id.doubleValue()));
+            case StringIdentifier id -> hash(id.value());
+            case CompactStringIdentifier id -> hash(id.isAscii() ? id : id.original());
+            default -> hash(identifier.toString());
+        };
+    }
+
+    private static IdentifierKey uuid(final UUID value) {
+        long high = value.getMostSignificantBits(), low = value.getLeastSignificantBits();
+        if ((high & VERSION_MASK) != 0) return new IdentifierKey(high, low);
+        return hashed(IdentifierHash.hash64(low ^ IdentifierHash.hash64(high ^ SEED_HIGH)),
+                IdentifierHash.hash64(high ^ IdentifierHash.hash64(low ^ SEED_LOW)));
+    }
+
+    private static IdentifierKey hash(final CharSequence value) {
+        return hashed(IdentifierHash.hash64(value, SEED_HIGH), IdentifierHash.hash64(value, SEED_LOW));
+    }
+
+    private static IdentifierKey hashed(final long high, final long low) {
+        return new IdentifierKey((high & ~TAG_MASK) | TAG_HASH, low);
+    }
+
+    /**
+     * Checks whether this key is a hash rather than the exact value of its identifier.
+     *
+     * @return {@code true} if different identifiers may share this key
+     */
+    public boolean hashed() {
+        return (high & TAG_MASK) == TAG_HASH;
+    }
+
+    /**
+     * Compares this key with another one as unsigned 128 bit number.
+     *
+     * @param other the key to compare to (must not be null)
+     * @return a negative integer, zero, or a positive integer as this key is less than,
+     *         equal to, or greater than the specified key
+     */
+    @Override
+    public int compareTo(final @NonNull IdentifierKey other) {
+        int compare = Long.compareUnsigned(high, other.high);
+        return compare != 0 ? compare : Long.compareUnsigned(low, other.low);
+    }
+
+    /**
+     * Returns a string representation of this key.
+     * <p>
+     * The format is: {@code "key:" + 32 hexadecimal digits}
+     * </p>
+     *
+     * @return a string representation containing the 128 bits of the key
+     */
+    @Override
+    public @NonNull String toString() {
+        return "key:" + String.format("%016x%016x", high, low);
+    }
+}
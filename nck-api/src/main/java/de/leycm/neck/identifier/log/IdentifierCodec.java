@@ -0,0 +1,185 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.log;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.type.CompactStringIdentifier;
+import de.leycm.neck.identifier.type.DoubleIdentifier;
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.LongIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import de.leycm.neck.identifier.type.StringIdentifier;
+import de.leycm.neck.identifier.type.UUIDIdentifier;
+import lombok.NonNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The binary form of the built-in {@link Identifier} types.
+ * <p>
+ * An identifier is written as a one byte type tag followed by its raw big-endian value:
+ * eight bytes for {@link LongIdentifier} and {@link DoubleIdentifier}, four for
+ * {@link IntIdentifier}, two for {@link ShortIdentifier}, sixteen for {@link UUIDIdentifier},
+ * and a four byte length plus UTF-8 bytes for strings. A {@link CompactStringIdentifier} is
+ * written like the equal {@link StringIdentifier} and read back as one. Values UTF-8 cannot
+ * carry unchanged, strings with unpaired surrogates and compact identifiers built from invalid
+ * UTF-8, are rejected rather than written with replacement characters, so a key never turns
+ * into a different one on its way through the codec.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * ByteBuffer buffer = ByteBuffer.allocate(IdentifierCodec.size(id));
+ * IdentifierCodec.write(id, buffer);
+ * buffer.flip();
+ * Identifier<?> copy = IdentifierCodec.read(buffer);
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is stateless and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierLog
+ */
+public final class IdentifierCodec {
+
+    private static final byte TAG_LONG = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_SHORT = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_UUID = 5;
+    private static final byte TAG_STRING = 6;
+
+    private IdentifierCodec() { }
+
+    /**
+     * Returns the number of bytes {@link #write(Identifier, ByteBuffer)} writes for the given identifier.
+     *
+     * @param identifier the identifier
+     * @return the encoded size in bytes
+     * @throws IllegalArgumentException if the identifier type has no binary form or its
+     *                                  value is not valid Unicode
+     */
+    public static int size(final @NonNull Identifier<?> identifier) {
+        return switch (identifier) {
+            case LongIdentifier ignored -> 9;
+            case IntIdentifier ignored -> 5;
+            case ShortIdentifier ignored -> 3;
+            case DoubleIdentifier ignored -> 9;
+            case UUIDIdentifier ignored -> 17;
+            case StringIdentifier id -> 5 + utf8Length(id.value());
+            case CompactStringIdentifier id -> 5 + utf8(id).length;
+            default -> throw new IllegalArgumentException("No binary form for " + identifier.getClass().getName());
+        };
+    }
+
+    /**
+     * Writes the given identifier at the position of the buffer.
+     *
+     * @param identifier the identifier
+     * @param buffer     the buffer to write to, with at least {@link #size(Identifier)} bytes remaining
+     * @throws IllegalArgumentException if the identifier type has no binary form or its
+     *                                  value is not valid Unicode
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void write(final @NonNull Identifier<?> identifier, final @NonNull ByteBuffer buffer) {
+        switch (identifier) {
+            case LongIdentifier id -> buffer.put(TAG_LONG).putLong(id.longValue());
+            case IntIdentifier id -> buffer.put(TAG_INT).putInt(id.intValue());
+            case ShortIdentifier id -> buffer.put(TAG_SHORT).putShort(id.shortValue());
+            case DoubleIdentifier id -> buffer.put(TAG_DOUBLE).putDouble(id.doubleValue());
+            case UUIDIdentifier id -> buffer.put(TAG_UUID)
+                    .putLong(id.value().getMostSignificantBits())
+                    .putLong(id.value().getLeastSignificantBits());
+            case StringIdentifier id -> writeString(utf8(id.value()), buffer);
+            case CompactStringIdentifier id -> writeString(utf8(id), buffer);
+            default -> throw new IllegalArgumentException("No binary form for " + identifier.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads an identifier at the position of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return the identifier
+     * @throws IllegalArgumentException if the buffer does not hold a valid identifier
+     */
+    public static @NonNull Identifier<?> read(final @NonNull ByteBuffer buffer) {
+        try {
+            byte tag = buffer.get();
+            return switch (tag) {
+                case TAG_LONG -> new LongIdentifier(buffer.getLong());
+                case TAG_INT -> new IntIdentifier(buffer.getInt());
+                case TAG_SHORT -> new ShortIdentifier(buffer.getShort());
+                case TAG_DOUBLE -> new DoubleIdentifier(buffer.getDouble());
+                case TAG_UUID -> new UUIDIdentifier(new UUID(buffer.getLong(), buffer.getLong()));
+                case TAG_STRING -> {
+                    int length = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining())
+                        throw new IllegalArgumentException("Invalid string length " + length);
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    yield new StringIdentifier(new String(bytes, StandardCharsets.UTF_8));
+                }
+                default -> throw new IllegalArgumentException("Unknown identifier tag " + tag);
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated identifier", e);
+        }
+    }
+
+    private static void writeString(final byte[] bytes, final ByteBuffer buffer) {
+        buffer.put(TAG_STRING).putInt(bytes.length).put(bytes);
+    }
+
+    private static byte[] utf8(final String value) {
+        utf8Length(value); // rejects unpaired surrogates, the only strings UTF-8 cannot carry
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(final CompactStringIdentifier identifier) {
+        byte[] bytes = identifier.utf8();
+        if (identifier.isAscii()) return bytes;
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes));
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("The identifier is not valid UTF-8", e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the length of the UTF-8 bytes of a string.
+     *
+     * @throws IllegalArgumentException if the string contains an unpaired surrogate, which
+     *                                  UTF-8 can only replace by {@code '?'}
+     */
+    private static int utf8Length(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException("Unpaired surrogate at index " + i);
+            }
+            else length += 3;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,777 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.log;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.collection.IdentifierKeyMap;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable, append-only log of changes keyed by {@link Identifier}.
+ * <p>
+ * Every change is a record of the {@link IdentifierCodec binary identifier} and an opaque
+ * payload, checksummed with CRC32C and appended to the active segment file through a
+ * {@link FileChannel}. Appends use group commit: an internal flusher thread writes the records
+ * of every waiting writer with one gathering write and one {@link FileChannel#force(boolean) fsync},
+ * so concurrent writers share the cost of syncing and durable throughput grows with the number
+ * of writers. An append returns once its record is on disk.
+ * </p>
+ * <p>
+ * Interrupting a thread that uses a {@link FileChannel} closes the channel. Callers never write
+ * themselves, and a segment channel closed by an interrupted reader is opened again, so
+ * interrupts only affect the interrupted call.
+ * </p>
+ * <p>
+ * The log keeps the location of the latest record per identifier in memory and rebuilds it
+ * from the segments when opened, cutting off a torn tail of the last segment. Full segments
+ * are sealed; {@link #compact()} merges the sealed segments into one holding only the latest
+ * record of every identifier that was not deleted. A crash during compaction leaves either
+ * the old segments or the compacted one, never a mix.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * try (IdentifierLog log = IdentifierLog.open(Path.of("data/profiles"))) {
+ *     log.append(profile, serializer.toBytes(profile));
+ *     byte[] latest = log.read(profile.identifier());
+ *     log.compact();
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Reads do not block appends. Appends wait
+ * for the flusher without reacting to interrupts. An I/O failure while writing fails every
+ * waiting append and all later ones, the log has to be reopened to recover.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierCodec
+ */
+public final class IdentifierLog implements Closeable {
+
+    /**
+     * The segment size used by {@link #open(Path)}.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    private static final int MAGIC = 0x4E434B4C; // "NCKL"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16; // magic, version, lowest covered segment id
+    private static final int RECORD_HEADER = 8; // length, checksum
+    private static final int MAX_RECORD = 1 << 30;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte[] NO_PAYLOAD = new byte[0];
+    private static final Pattern SEGMENT = Pattern.compile("\\d{20}\\.log");
+    private static final String COMPACTING = ".compacting";
+    private static final int MAX_REOPEN = 8;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final IdentifierKeyMap<Location> index = new IdentifierKeyMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition queued = lock.newCondition();
+    private final ReentrantLock compaction = new ReentrantLock();
+
+    private volatile List<Segment> segments; // ascending by id, the last one is active
+    private List<Pending> queue = new ArrayList<>();
+    private boolean running = true; // while the flusher thread runs
+    private IOException failure;
+    private volatile boolean closed;
+
+    private IdentifierLog(final Path directory, final long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the log in the given directory with {@link #DEFAULT_SEGMENT_BYTES the default
+     * segment size}, creating it if necessary.
+     *
+     * @param directory the directory of the segment files
+     * @return the opened log
+     * @throws IOException if the directory cannot be read or holds a corrupt sealed segment
+     */
+    public static @NonNull IdentifierLog open(final @NonNull Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if necessary.
+     *
+     * @param directory    the directory of the segment files
+     * @param segmentBytes the size after which the active segment is sealed
+     * @return the opened log
+     * @throws IOException if the directory cannot be read or holds a corrupt sealed segment
+     * @throws IllegalArgumentException if the segment size is smaller than 4 KiB
+     */
+    public static @NonNull IdentifierLog open(final @NonNull Path directory, final long segmentBytes) throws IOException {
+        if (segmentBytes < 4096) throw new IllegalArgumentException("The segment size must be at least 4 KiB");
+        Files.createDirectories(directory);
+
+        IdentifierLog log = new IdentifierLog(directory, segmentBytes);
+        log.recover();
+        Thread.ofPlatform().daemon().name("IdentifierLog flusher " + directory).start(log::flusher);
+        return log;
+    }
+
+    /**
+     * Appends a change of the given identifier and waits until it is durable.
+     *
+     * @param identifier the changed identifier
+     * @param payload    the new state or the change, as the application encodes it
+     * @throws IOException if the record could not be written or the log is closed
+     * @throws IllegalArgumentException if the identifier has no {@link IdentifierCodec binary form} or the record is too large
+     */
+    public void append(final @NonNull Identifier<?> identifier, final byte @NonNull [] payload) throws IOException {
+        write(PUT, identifier, payload);
+    }
+
+    /**
+     * Appends a change of the given object and waits until it is durable.
+     *
+     * @param identifiable the changed object
+     * @param payload      the new state or the change, as the application encodes it
+     * @throws IOException if the record could not be written or the log is closed
+     * @see #append(Identifier, byte[])
+     */
+    public void append(final @NonNull Identifiable<?, ?> identifiable, final byte @NonNull [] payload) throws IOException {
+        write(PUT, identifiable.identifier(), payload);
+    }
+
+    /**
+     * Appends the deletion of the given identifier and waits until it is durable.
+     *
+     * @param identifier the deleted identifier
+     * @throws IOException if the record could not be written or the log is closed
+     */
+    public void delete(final @NonNull Identifier<?> identifier) throws IOException {
+        write(DELETE, identifier, NO_PAYLOAD);
+    }
+
+    /**
+     * Returns the payload of the latest change of the given identifier.
+     *
+     * @param identifier the identifier to look up
+     * @return the payload, or {@code null} if the identifier was never written or is deleted
+     * @throws IOException if the segment cannot be read
+     */
+    public byte[] read(final @NonNull Identifier<?> identifier) throws IOException {
+        while (true) {
+            Location location = index.get(identifier);
+            if (location == null) return null;
+
+            Segment segment = location.segment;
+            FileChannel channel = segment.channel;
+            ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            try {
+                readFully(channel, buffer, location.offset);
+                return buffer.array();
+            } catch (ClosedChannelException e) {
+                boolean open = reopen(segment, channel);
+                if (e instanceof ClosedByInterruptException || closed) throw e;
+                // otherwise compaction retired the segment after moving the record, look it up again
+                if (!open && index.get(identifier) == location) throw e;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given identifier has a latest change that is not a deletion.
+     *
+     * @param identifier the identifier to look up
+     * @return {@code true} if the identifier is present
+     */
+    public boolean contains(final @NonNull Identifier<?> identifier) {
+        return index.containsKey(identifier);
+    }
+
+    /**
+     * Returns the number of identifiers that are present.
+     *
+     * @return the number of identifiers
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of segment files, including the active one.
+     *
+     * @return the number of segments
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Merges all sealed segments into one that only holds the latest record of every present
+     * identifier. Appends and reads continue while the segments are merged.
+     *
+     * @throws IOException if a segment cannot be read or written, the log stays unchanged then
+     */
+    public void compact() throws IOException {
+        compaction.lock();
+        try {
+            List<Segment> sealed;
+            lock.lock();
+            try {
+                if (closed) throw new IOException("The log is closed");
+                List<Segment> all = segments;
+                sealed = List.copyOf(all.subList(0, all.size() - 1));
+            } finally {
+                lock.unlock();
+            }
+            if (sealed.isEmpty()) return;
+
+            Segment last = sealed.getLast();
+            long covers = sealed.getFirst().covers;
+            Path temporary = directory.resolve(last.path.getFileName() + COMPACTING);
+            List<Moved> moved = new ArrayList<>();
+
+            long size;
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(out, covers);
+                long[] position = {HEADER};
+                for (Segment segment : sealed) {
+                    // a channel of its own, so neither readers nor an interrupt of this thread affect the other
+                    try (FileChannel in = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                        long end = scan(in, (type, identifier, start, length, payload) -> {
+                            Location current = index.get(identifier);
+                            if (type != PUT || current == null || current.segment != segment
+                                    || current.offset != start + payload) return;
+
+                            transferFully(in, start, length, out, position[0]);
+                            moved.add(new Moved(identifier, current, position[0] + payload));
+                            position[0] += length;
+                        });
+                        if (end != segment.size) throw new IOException("Corrupt sealed segment " + segment.path);
+                    }
+                }
+                out.force(true);
+                size = position[0];
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+
+            // the channel follows the file through the rename
+            FileChannel channel;
+            try {
+                channel = openChannel(temporary);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Segment compacted = new Segment(last.id, last.path, channel, covers, size);
+
+            // rename, publish and retire at once, so no interrupted reader reopens the path of the
+            // last segment in between and reads its old offsets from the compacted file
+            lock.lock();
+            try {
+                try {
+                    Files.move(temporary, last.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    Files.deleteIfExists(temporary);
+                    throw e;
+                }
+
+                for (Moved entry : moved)
+                    if (index.get(entry.identifier) == entry.previous)
+                        index.put(entry.identifier, new Location(compacted, entry.offset, entry.previous.length));
+
+                List<Segment> all = segments;
+                List<Segment> remaining = new ArrayList<>(all.size() - sealed.size() + 1);
+                remaining.add(compacted);
+                remaining.addAll(all.subList(sealed.size(), all.size()));
+                segments = remaining;
+                for (Segment segment : sealed)
+                    segment.retired = true;
+            } finally {
+                lock.unlock();
+            }
+
+            syncDirectory(); // the replaced segments are only deleted once the rename is durable
+            for (Segment segment : sealed) {
+                segment.channel.close();
+                if (segment != last) Files.deleteIfExists(segment.path);
+            }
+        } finally {
+            compaction.unlock();
+        }
+    }
+
+    /**
+     * Waits for a running compaction and for the flusher to write all queued appends,
+     * and closes all segments.
+     *
+     * @throws IOException if a segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        compaction.lock();
+        try {
+            lock.lock();
+            try {
+                if (closed) return;
+                closed = true;
+                queued.signal();
+                while (running)
+                    flushed.awaitUninterruptibly();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            for (Segment segment : segments) {
+                try {
+                    segment.channel.close();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                    else failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) throw failure;
+        } finally {
+            compaction.unlock();
+        }
+    }
+
+    /**
+     * Returns a string representation of this log.
+     * <p>
+     * The format is: {@code "IdentifierLog{directory=" + directory + ", segments=" + segmentCount() + ", size=" + size() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the directory, segment count and number of identifiers
+     */
+    @Override
+    public String toString() {
+        return "IdentifierLog{directory=" + directory + ", segments=" + segments.size() + ", size=" + index.size() + "}";
+    }
+
+    private void write(final byte type, final Identifier<?> identifier, final byte[] payload) throws IOException {
+        int identifierSize = IdentifierCodec.size(identifier);
+        long length = 1L + identifierSize + payload.length;
+        if (length > MAX_RECORD) throw new IllegalArgumentException("The record is too large");
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + (int) length);
+        record.putInt((int) length).putInt(0).put(type);
+        IdentifierCodec.write(identifier, record);
+        record.put(payload);
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), RECORD_HEADER, (int) length);
+        record.putInt(4, (int) checksum.getValue());
+        record.flip();
+
+        Pending pending = new Pending(record, identifier, type, RECORD_HEADER + 1 + identifierSize, payload.length);
+        lock.lock();
+        try {
+            if (failure != null) throw new IOException("The log failed before", failure);
+            if (closed) throw new IOException("The log is closed");
+            queue.add(pending);
+            queued.signal();
+
+            while (!pending.done) {
+                if (failure != null) throw new IOException("The record could not be written", failure);
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the flusher thread, which writes and syncs all queued records as one group commit
+     * until the log is closed or fails. Nothing can interrupt it, so only readers close a channel under it.
+     */
+    private void flusher() {
+        lock.lock();
+        try {
+            while (true) {
+                while (queue.isEmpty() && !closed)
+                    queued.awaitUninterruptibly();
+                if (queue.isEmpty() || failure != null) break;
+
+                List<Pending> batch = queue;
+                queue = new ArrayList<>();
+                List<Segment> created = new ArrayList<>();
+                IOException error = null;
+                lock.unlock();
+                try {
+                    writeBatch(batch, segments.getLast(), created);
+                } catch (IOException | RuntimeException e) {
+                    error = e instanceof IOException io ? io : new IOException(e);
+                } finally {
+                    lock.lock();
+                }
+
+                if (error != null) {
+                    failure = error;
+                } else {
+                    if (!created.isEmpty()) {
+                        List<Segment> extended = new ArrayList<>(segments);
+                        extended.addAll(created);
+                        segments = extended;
+                    }
+                    for (Pending pending : batch) {
+                        if (pending.type == PUT) index.put(pending.identifier, pending.location);
+                        else index.remove(pending.identifier);
+                        pending.done = true;
+                    }
+                }
+                flushed.signalAll();
+            }
+        } finally {
+            running = false;
+            flushed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    private void writeBatch(final List<Pending> batch, Segment segment, final List<Segment> created) throws IOException {
+        int from = 0;
+        while (from < batch.size()) {
+            if (segment.size > HEADER && segment.size + batch.get(from).record.remaining() > segmentBytes) {
+                // the sealed segment must be complete on disk before a newer one has records
+                onChannel(segment, channel -> channel.force(false));
+                segment = createSegment(segment.id + 1);
+                created.add(segment);
+            }
+
+            int to = from;
+            long size = segment.size;
+            do {
+                Pending pending = batch.get(to++);
+                pending.location = new Location(segment, size + pending.payload, pending.length);
+                size += pending.record.remaining();
+            } while (to < batch.size() && size + batch.get(to).record.remaining() <= segmentBytes);
+
+            int first = from, count = to - from;
+            long start = segment.size, end = size;
+            onChannel(segment, channel -> {
+                // written again in full if a reader closed the channel meanwhile
+                ByteBuffer[] buffers = new ByteBuffer[count];
+                for (int i = 0; i < count; i++)
+                    buffers[i] = batch.get(first + i).record.duplicate();
+                channel.position(start);
+                long remaining = end - start;
+                while (remaining > 0L)
+                    remaining -= channel.write(buffers);
+            });
+
+            segment.size = size;
+            from = to;
+        }
+        onChannel(segment, channel -> channel.force(false));
+    }
+
+    /**
+     * Runs a channel operation of the flusher, opening the channel again and repeating the
+     * operation if an interrupted reader closed it.
+     */
+    private void onChannel(final Segment segment, final ChannelTask task) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            FileChannel channel = segment.channel;
+            try {
+                task.run(channel);
+                return;
+            } catch (ClosedChannelException e) {
+                if (attempt == MAX_REOPEN || !reopen(segment, channel)) throw e;
+            }
+        }
+    }
+
+    /**
+     * Replaces the given closed channel of a segment by a new one, unless another thread did
+     * already. Returns {@code false} if the segment was retired or the log is closed.
+     */
+    private boolean reopen(final Segment segment, final FileChannel closedChannel) throws IOException {
+        lock.lock();
+        try {
+            if (closed || segment.retired) return false;
+            if (segment.channel == closedChannel) segment.channel = openChannel(segment.path);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> stale;
+        try (Stream<Path> files = Files.list(directory)) {
+            stale = files.filter(path -> path.getFileName().toString().endsWith(COMPACTING)).toList();
+        }
+        for (Path path : stale)
+            Files.delete(path);
+
+        List<Long> ids;
+        try (Stream<Path> files = Files.list(directory)) {
+            ids = files.map(path -> path.getFileName().toString())
+                    .filter(name -> SEGMENT.matcher(name).matches())
+                    .map(name -> Long.parseLong(name.substring(0, 20)))
+                    .sorted()
+                    .toList();
+        }
+
+        List<Segment> recovered = new ArrayList<>();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                long id = ids.get(i);
+                Path path = segmentPath(id);
+                boolean last = i == ids.size() - 1;
+                FileChannel channel = openChannel(path);
+
+                long covers = readHeader(channel, path, last);
+                if (covers < 0L) { // the last segment was created but its header never reached the disk
+                    channel.close();
+                    recovered.add(createSegment(id));
+                    break;
+                }
+
+                // a compacted segment replaces older ones, whose removal may have been interrupted
+                while (!recovered.isEmpty() && recovered.getLast().id >= covers) {
+                    Segment replaced = recovered.removeLast();
+                    replaced.channel.close();
+                    Files.delete(replaced.path);
+                }
+
+                Segment segment = new Segment(id, path, channel, covers, channel.size());
+                recovered.add(segment);
+                long end = scan(channel, (type, identifier, start, length, payload) -> {
+                    if (type == PUT) index.put(identifier, new Location(segment, start + payload, length - payload));
+                    else index.remove(identifier);
+                });
+
+                if (end != segment.size) {
+                    if (!last) throw new IOException("Corrupt sealed segment " + path + " at " + end);
+                    channel.truncate(end);
+                    channel.force(true);
+                    segment.size = end;
+                }
+            }
+
+            if (recovered.isEmpty() || recovered.getLast().covers != recovered.getLast().id)
+                recovered.add(createSegment(recovered.isEmpty() ? 0L : recovered.getLast().id + 1));
+            Segment active = recovered.getLast();
+            active.channel.position(active.size);
+        } catch (IOException | RuntimeException e) {
+            for (Segment segment : recovered)
+                segment.channel.close();
+            throw e;
+        }
+        segments = recovered;
+    }
+
+    /**
+     * Reads all valid records of a segment and returns the position after the last one.
+     */
+    private static long scan(final FileChannel channel, final RecordVisitor visitor) throws IOException {
+        long size = channel.size();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(HEADER)), 1 << 16));
+        long position = HEADER;
+        CRC32C checksum = new CRC32C();
+        try {
+            while (position + RECORD_HEADER <= size) {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length <= 0 || length > MAX_RECORD || position + RECORD_HEADER + length > size) break;
+
+                byte[] body = new byte[length];
+                in.readFully(body);
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != expected) break;
+
+                ByteBuffer buffer = ByteBuffer.wrap(body);
+                byte type = buffer.get();
+                if (type != PUT && type != DELETE) break;
+                Identifier<?> identifier;
+                try {
+                    identifier = IdentifierCodec.read(buffer);
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+
+                visitor.visit(type, identifier, position, RECORD_HEADER + length, RECORD_HEADER + buffer.position());
+                position += RECORD_HEADER + length;
+            }
+        } catch (EOFException e) {
+            // the file ended within a record, the position stays before it
+        }
+        return position;
+    }
+
+    private Segment createSegment(final long id) throws IOException {
+        Path path = segmentPath(id);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeHeader(channel, id);
+            channel.force(true);
+            channel.position(HEADER);
+            syncDirectory();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new Segment(id, path, channel, id, HEADER);
+    }
+
+    /**
+     * Makes created, renamed and deleted segment files durable.
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened on Windows, where renames are durable with the file
+            if (!WINDOWS) throw e;
+        }
+    }
+
+    private static void writeHeader(final FileChannel channel, final long covers) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).putLong(covers).flip();
+        while (header.hasRemaining())
+            channel.write(header, header.position());
+    }
+
+    /**
+     * Returns the lowest segment id the segment covers, or {@code -1} for a last segment
+     * without a complete header.
+     */
+    private static long readHeader(final FileChannel channel, final Path path, final boolean last) throws IOException {
+        if (channel.size() < HEADER) {
+            if (last) return -1L;
+            throw new IOException("Truncated segment header in " + path);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        readFully(channel, header, 0L);
+        header.flip();
+        if (header.getInt() != MAGIC) throw new IOException(path + " is not a log segment");
+        int version = header.getInt();
+        if (version != VERSION) throw new IOException("Unsupported segment version " + version + " in " + path);
+        return header.getLong();
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new EOFException("Unexpected end of segment");
+        }
+    }
+
+    private static void transferFully(final FileChannel source, final long position, final long length,
+                                      final FileChannel target, final long targetPosition) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        readFully(source, buffer, position);
+        buffer.flip();
+        while (buffer.hasRemaining())
+            target.write(buffer, targetPosition + buffer.position());
+    }
+
+    private static FileChannel openChannel(final Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(final long id) {
+        return directory.resolve(String.format("%020d.log", id));
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+
+        /**
+         * Visits a record starting at {@code start} with {@code length} bytes including its
+         * header, whose payload starts {@code payload} bytes into the record.
+         */
+        void visit(byte type, Identifier<?> identifier, long start, int length, int payload) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChannelTask {
+
+        void run(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * A segment file. Its size is only changed by the flusher, its channel is replaced
+     * under the lock when an interrupt closed it.
+     */
+    private static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private volatile FileChannel channel;
+        private final long covers;
+        private long size;
+        private volatile boolean retired; // set under the lock once compaction replaced the segment
+
+        private Segment(final long id, final Path path, final FileChannel channel, final long covers, final long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.covers = covers;
+            this.size = size;
+        }
+    }
+
+    private record Location(Segment segment, long offset, int length) { }
+
+    private record Moved(Identifier<?> identifier, Location previous, long offset) { }
+
+    private static final class Pending {
+
+        private final ByteBuffer record;
+        private final Identifier<?> identifier;
+        private final byte type;
+        private final int payload;
+        private final int length;
+        private Location location; // set by the flusher while writing
+        private boolean done; // set by the flusher under the lock once the record is durable
+
+        private Pending(final ByteBuffer record, final Identifier<?> identifier, final byte type,
+                        final int payload, final int length) {
+            this.record = record;
+            this.identifier = identifier;
+            this.type = type;
+            this.payload = payload;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.partition;
+
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An immutable consistent hash ring with virtual nodes.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} positions derived from the stable
+ * hash of its name, and an identifier belongs to the first node position at or after its own
+ * {@link IdentifierHash hash}. Adding or removing a node therefore only moves the identifiers
+ * of that node, about {@code 1 / n} of all identifiers, and every process that knows the same
+ * node names computes the same routing. Routing is a binary search on a sorted {@code long[]}
+ * and does not allocate.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * HashRing<String> ring = HashRing.of(name -> name, 128, List.of("node-a", "node-b"));
+ * String owner = ring.route(new UUIDIdentifier(playerId));
+ *
+ * HashRing<String> grown = ring.with("node-c"); // only keys now owned by node-c move
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe. Publish a changed ring
+ * through a volatile field or an {@code AtomicReference}.</p>
+ *
+ * @param <N> the type of the nodes
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see JumpHash
+ */
+public final class HashRing<N> implements Partitioner<N> {
+
+    private final Function<? super N, String> naming;
+    private final int virtualNodes;
+    private final List<N> nodes;
+    private final long[] points;
+    private final Object[] owners;
+
+    private HashRing(final Function<? super N, String> naming, final int virtualNodes, final List<N> nodes) {
+        this.naming = naming;
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableList(nodes);
+
+        int size = nodes.size() * virtualNodes;
+        long[] positions = new long[size];
+        String[] names = new String[nodes.size()];
+        Integer[] order = new Integer[size];
+
+        for (int node = 0; node < nodes.size(); node++) {
+            names[node] = naming.apply(nodes.get(node));
+            long base = IdentifierHash.hash64(names[node]);
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                int index = node * virtualNodes + replica;
+                positions[index] = IdentifierHash.hash64(base + replica * 0x9E3779B97F4A7C15L);
+                order[index] = index;
+            }
+        }
+
+        // ties are broken by name, so the ring does not depend on the order nodes were added in
+        Arrays.sort(order, (a, b) -> {
+            int compare = Long.compare(positions[a], positions[b]);
+            return compare != 0 ? compare : names[a / virtualNodes].compareTo(names[b / virtualNodes]);
+        });
+
+        this.points = new long[size];
+        this.owners = new Object[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = positions[order[i]];
+            owners[i] = nodes.get(order[i] / virtualNodes);
+        }
+    }
+
+    /**
+     * Creates a ring of the given nodes.
+     *
+     * @param naming       returns the stable, unique name of a node, which determines its positions
+     * @param virtualNodes the number of positions per node, more positions spread keys more evenly
+     * @param nodes        the initial nodes
+     * @param <N>          the type of the nodes
+     * @return the new ring
+     * @throws IllegalArgumentException if {@code virtualNodes} is not positive or two nodes share a name
+     */
+    public static <N> @NonNull HashRing<N> of(final @NonNull Function<? super N, String> naming,
+                                              final int virtualNodes,
+                                              final @NonNull Collection<? extends N> nodes) {
+        if (virtualNodes <= 0) throw new IllegalArgumentException("The number of virtual nodes must be positive");
+
+        Set<String> names = new HashSet<>();
+        for (N node : nodes)
+            if (!names.add(naming.apply(node)))
+                throw new IllegalArgumentException("Duplicate node name " + naming.apply(node));
+
+        return new HashRing<>(naming, virtualNodes, new ArrayList<>(nodes));
+    }
+
+    /**
+     * Returns a ring with the given node added.
+     *
+     * @param node the node to add
+     * @return the new ring
+     * @throws IllegalArgumentException if a node with the same name is already on the ring
+     */
+    public @NonNull HashRing<N> with(final @NonNull N node) {
+        String name = naming.apply(node);
+        for (N existing : nodes)
+            if (naming.apply(existing).equals(name))
+                throw new IllegalArgumentException("Duplicate node name " + name);
+
+        List<N> nodes = new ArrayList<>(this.nodes);
+        nodes.add(node);
+        return new HashRing<>(naming, virtualNodes, nodes);
+    }
+
+    /**
+     * Returns a ring with the node of the same name removed.
+     *
+     * @param node the node to remove
+     * @return the new ring, or this ring if the node is not on it
+     */
+    public @NonNull HashRing<N> without(final @NonNull N node) {
+        String name = naming.apply(node);
+        List<N> nodes = new ArrayList<>(this.nodes);
+        if (!nodes.removeIf(existing -> naming.apply(existing).equals(name))) return this;
+        return new HashRing<>(naming, virtualNodes, nodes);
+    }
+
+    /**
+     * Returns the node owning the given {@link IdentifierHash} hash.
+     *
+     * @param hash the hash to route
+     * @return the owning node
+     * @throws IllegalStateException if the ring has no nodes
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull N route(final long hash) {
+        if (points.length == 0) throw new IllegalStateException("The ring has no nodes");
+
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) index = -index - 1;
+        if (index == points.length) index = 0;
+        return (N) owners[index];
+    }
+
+    /**
+     * Returns the nodes on this ring.
+     *
+     * @return an unmodifiable list of the nodes
+     */
+    public @NonNull List<N> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of nodes on this ring.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the number of positions per node.
+     *
+     * @return the number of virtual nodes
+     */
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * Returns a string representation of this ring.
+     * <p>
+     * The format is: {@code "HashRing{nodes=" + size() + ", virtualNodes=" + virtualNodes() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the node and virtual node count
+     */
+    @Override
+    public String toString() {
+        return "HashRing{nodes=" + nodes.size() + ", virtualNodes=" + virtualNodes + "}";
+    }
+}
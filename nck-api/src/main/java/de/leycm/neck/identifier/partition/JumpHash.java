@@ -0,0 +1,89 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.partition;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+/**
+ * Jump consistent hashing of identifiers to numbered buckets.
+ * <p>
+ * Maps a hash to a bucket between {@code 0} and {@code buckets - 1} in logarithmic time,
+ * without any state and without allocating. When the number of buckets grows from
+ * {@code n} to {@code n + 1}, only about {@code 1 / (n + 1)} of all identifiers move, all of
+ * them to the new bucket. Buckets can only be added or removed at the end, which makes this
+ * the right choice for shards or worker threads; use a {@link HashRing} for named nodes that
+ * come and go individually.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * int worker = JumpHash.bucket(order.identifier(), workers.length);
+ * workers[worker].submit(() -> process(order));
+ * }</pre>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see HashRing
+ */
+public final class JumpHash {
+
+    private JumpHash() { }
+
+    /**
+     * Returns the bucket of the given identifier.
+     *
+     * @param identifier the identifier to route
+     * @param buckets    the number of buckets
+     * @return the bucket, between {@code 0} and {@code buckets - 1}
+     * @throws IllegalArgumentException if {@code buckets} is not positive
+     */
+    public static int bucket(final @NonNull Identifier<?> identifier, final int buckets) {
+        return bucket(IdentifierHash.hash64(identifier), buckets);
+    }
+
+    /**
+     * Returns the bucket of the identifier of the given object.
+     *
+     * @param identifiable the object to route
+     * @param buckets      the number of buckets
+     * @return the bucket, between {@code 0} and {@code buckets - 1}
+     * @throws IllegalArgumentException if {@code buckets} is not positive
+     */
+    public static int bucket(final @NonNull Identifiable<?, ?> identifiable, final int buckets) {
+        return bucket(identifiable.identifier(), buckets);
+    }
+
+    /**
+     * Returns the bucket of the given hash, following Lamping and Veach,
+     * "A Fast, Minimal Memory, Consistent Hash Algorithm".
+     *
+     * @param hash    the hash to route
+     * @param buckets the number of buckets
+     * @return the bucket, between {@code 0} and {@code buckets - 1}
+     * @throws IllegalArgumentException if {@code buckets} is not positive
+     */
+    public static int bucket(final long hash, final int buckets) {
+        if (buckets <= 0) throw new IllegalArgumentException("The number of buckets must be positive");
+
+        long key = hash;
+        long bucket = -1L;
+        long next = 0L;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1L;
+            next = (long) ((bucket + 1L) * ((double) (1L << 31) / (double) ((key >>> 33) + 1L)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.partition;
+
+import de.leycm.neck.identifier.Identifiable;
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+/**
+ * Routes identifiers to one of several targets, such as nodes, shards or threads.
+ * <p>
+ * Routing is based on the stable {@link IdentifierHash} of an identifier, so every
+ * process routes the same identifier to the same target.
+ * </p>
+ *
+ * @param <N> the type of the routing targets
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see HashRing
+ * @see JumpHash
+ */
+@FunctionalInterface
+public interface Partitioner<N> {
+
+    /**
+     * Returns the target for the given {@link IdentifierHash} hash.
+     *
+     * @param hash the hash to route
+     * @return the target owning the hash
+     */
+    @NonNull N route(long hash);
+
+    /**
+     * Returns the target for the given identifier.
+     *
+     * @param identifier the identifier to route
+     * @return the target owning the identifier
+     */
+    default @NonNull N route(final @NonNull Identifier<?> identifier) {
+        return route(IdentifierHash.hash64(identifier));
+    }
+
+    /**
+     * Returns the target for the identifier of the given object.
+     *
+     * @param identifiable the object to route
+     * @return the target owning the object
+     */
+    default @NonNull N route(final @NonNull Identifiable<?, ?> identifiable) {
+        return route(identifiable.identifier());
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.sketch;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent count-min sketch estimating how often each {@link Identifier} occurred.
+ * <p>
+ * The sketch keeps {@code depth} rows of {@code width} counters. Every occurrence increments
+ * one counter per row and the estimate is the smallest of those counters, so an estimate is
+ * never too low and, with probability {@code 1 - delta}, at most {@code epsilon} times the
+ * total count too high. Memory is fixed no matter how many distinct identifiers are counted.
+ * Counters are updated with atomic additions and never block.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * CountMinSketch requests = CountMinSketch.create(0.001, 0.01);
+ * requests.add(userId);
+ * long approximate = requests.estimate(userId);
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see TopK
+ * @see IdentifierHash
+ */
+public final class CountMinSketch {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAGIC = 0x4E434B43; // "NCKC"
+    private static final int VERSION = 1;
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_PRESIZE = 1 << 16;
+    private static final long[] SALTS = new long[MAX_DEPTH];
+
+    static {
+        for (int i = 0; i < MAX_DEPTH; i++)
+            SALTS[i] = IdentifierHash.hash64((long) i) | 1L;
+    }
+
+    private final long[] cells;
+    private final int width;
+    private final int depth;
+    private final int shift;
+    private final LongAdder total = new LongAdder();
+
+    private CountMinSketch(final int width, final int depth) {
+        this(new long[width * depth], width, depth);
+    }
+
+    private CountMinSketch(final long[] cells, final int width, final int depth) {
+        this.cells = cells;
+        this.width = width;
+        this.depth = depth;
+        this.shift = 64 - Integer.numberOfTrailingZeros(width);
+    }
+
+    /**
+     * Creates a sketch for the given error bounds.
+     *
+     * @param epsilon the maximum overestimation relative to the total count, between {@code 0} and {@code 1}
+     * @param delta   the probability of exceeding that error, between {@code 0} and {@code 1}
+     * @return the new, empty sketch
+     * @throws IllegalArgumentException if an argument is out of range or the sketch would be too large
+     */
+    public static @NonNull CountMinSketch create(final double epsilon, final double delta) {
+        if (!(epsilon > 0.0 && epsilon < 1.0)) throw new IllegalArgumentException("Epsilon must be between 0 and 1");
+        if (!(delta > 0.0 && delta < 1.0)) throw new IllegalArgumentException("Delta must be between 0 and 1");
+
+        long width = Long.highestOneBit((long) Math.ceil(Math.E / epsilon) * 2L - 1L);
+        int depth = (int) Math.min(MAX_DEPTH, Math.max(1L, (long) Math.ceil(Math.log(1.0 / delta))));
+        if (width * depth > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("A sketch for epsilon " + epsilon + " is too large");
+        return new CountMinSketch((int) Math.max(2L, width), depth);
+    }
+
+    /**
+     * Counts one occurrence of the given identifier.
+     *
+     * @param identifier the identifier that occurred
+     */
+    public void add(final @NonNull Identifier<?> identifier) {
+        addHash(IdentifierHash.hash64(identifier), 1L);
+    }
+
+    /**
+     * Counts occurrences of the given identifier.
+     *
+     * @param identifier the identifier that occurred
+     * @param count      the number of occurrences
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public void add(final @NonNull Identifier<?> identifier, final long count) {
+        addHash(IdentifierHash.hash64(identifier), count);
+    }
+
+    /**
+     * Counts occurrences of an identifier by its {@link IdentifierHash} hash.
+     *
+     * @param hash  the hash of the identifier
+     * @param count the number of occurrences
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public void addHash(final long hash, final long count) {
+        if (count < 0L) throw new IllegalArgumentException("The count must not be negative");
+        if (count == 0L) return;
+
+        for (int row = 0; row < depth; row++)
+            CELLS.getAndAdd(cells, index(hash, row), count);
+        total.add(count);
+    }
+
+    /**
+     * Estimates how often the given identifier occurred. The estimate is never lower
+     * than the real count.
+     *
+     * @param identifier the identifier to look up
+     * @return the estimated count
+     */
+    public long estimate(final @NonNull Identifier<?> identifier) {
+        return estimateHash(IdentifierHash.hash64(identifier));
+    }
+
+    /**
+     * Estimates how often an identifier with the given {@link IdentifierHash} hash occurred.
+     *
+     * @param hash the hash of the identifier
+     * @return the estimated count
+     */
+    public long estimateHash(final long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++)
+            estimate = Math.min(estimate, (long) CELLS.getOpaque(cells, index(hash, row)));
+        return estimate;
+    }
+
+    /**
+     * Returns the total number of occurrences counted.
+     *
+     * @return the total count
+     */
+    public long totalCount() {
+        return total.sum();
+    }
+
+    /**
+     * Adds the counts of another sketch with the same dimensions, for example one filled
+     * by another thread or node.
+     *
+     * @param other the sketch to merge into this one
+     * @throws IllegalArgumentException if the dimensions differ
+     */
+    public void merge(final @NonNull CountMinSketch other) {
+        if (other.width != width || other.depth != depth)
+            throw new IllegalArgumentException("Only sketches of the same dimensions can be merged");
+
+        for (int i = 0; i < cells.length; i++) {
+            long value = (long) CELLS.getOpaque(other.cells, i);
+            if (value != 0L) CELLS.getAndAdd(cells, i, value);
+        }
+        total.add(other.total.sum());
+    }
+
+    /**
+     * Returns the number of counters per row.
+     *
+     * @return the width
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Writes the sketch. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final @NonNull OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(width);
+        data.writeInt(depth);
+        data.writeLong(total.sum());
+        for (int i = 0; i < cells.length; i++)
+            data.writeLong((long) CELLS.getOpaque(cells, i));
+        data.flush();
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo(OutputStream)}. Exactly the sketch bytes are
+     * consumed and the stream is not closed.
+     *
+     * @param in the stream to read from
+     * @return the restored sketch
+     * @throws IOException if reading fails or the stream holds no sketch
+     */
+    public static @NonNull CountMinSketch readFrom(final @NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("The stream does not contain a count-min sketch");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Unsupported sketch version " + version);
+
+        int width = data.readInt();
+        int depth = data.readInt();
+        if (width < 2 || Integer.bitCount(width) != 1 || depth < 1 || depth > MAX_DEPTH
+                || (long) width * depth > Integer.MAX_VALUE - 8)
+            throw new IOException("Corrupt sketch header");
+
+        long total = data.readLong();
+        CountMinSketch sketch = new CountMinSketch(readLongs(data, width * depth), width, depth);
+        sketch.total.add(total);
+        return sketch;
+    }
+
+    /**
+     * Reads the given number of longs. The length comes from an untrusted header, so the array
+     * starts small and grows with the data actually read, and a short stream fails with an
+     * {@link java.io.EOFException} before the full size is allocated.
+     */
+    private static long[] readLongs(final DataInputStream data, final int length) throws IOException {
+        long[] values = new long[Math.min(length, MAX_PRESIZE)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) values = Arrays.copyOf(values, (int) Math.min(length, values.length * 2L));
+            values[i] = data.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * Returns a string representation of this sketch.
+     * <p>
+     * The format is: {@code "CountMinSketch{width=" + width() + ", depth=" + depth() + ", total=" + totalCount() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the dimensions and total count
+     */
+    @Override
+    public String toString() {
+        return "CountMinSketch{width=" + width + ", depth=" + depth + ", total=" + total.sum() + "}";
+    }
+
+    private int index(final long hash, final int row) {
+        return row * width + (int) ((hash * SALTS[row]) >>> shift);
+    }
+}
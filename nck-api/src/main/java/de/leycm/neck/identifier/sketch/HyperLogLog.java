@@ -0,0 +1,225 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.sketch;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A concurrent HyperLogLog sketch estimating the number of distinct {@link Identifier}s.
+ * <p>
+ * With precision {@code p} the sketch keeps {@code 2^p} one byte registers and estimates the
+ * distinct count with a standard error of about {@code 1.04 / sqrt(2^p)}, for example 0.8%
+ * with the default precision of 14 in 16 KiB. Registers only ever grow and are raised with
+ * compare-and-set, so updates never block and sketches of different threads or nodes can be
+ * merged without losing accuracy.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * HyperLogLog visitors = HyperLogLog.create();
+ * visitors.add(new UUIDIdentifier(playerId));
+ * long distinct = visitors.estimate();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see IdentifierHash
+ */
+public final class HyperLogLog {
+
+    /**
+     * The precision used by {@link #create()}.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final VarHandle REGISTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int MAGIC = 0x4E434B48; // "NCKH"
+    private static final int VERSION = 1;
+
+    private final byte[] registers;
+    private final int precision;
+
+    private HyperLogLog(final int precision) {
+        this.registers = new byte[1 << precision];
+        this.precision = precision;
+    }
+
+    /**
+     * Creates a sketch with the {@link #DEFAULT_PRECISION default precision}.
+     *
+     * @return the new, empty sketch
+     */
+    public static @NonNull HyperLogLog create() {
+        return new HyperLogLog(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a sketch with the given precision.
+     *
+     * @param precision the number of index bits, between {@code 4} and {@code 18}
+     * @return the new, empty sketch
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public static @NonNull HyperLogLog create(final int precision) {
+        if (precision < 4 || precision > 18) throw new IllegalArgumentException("The precision must be between 4 and 18");
+        return new HyperLogLog(precision);
+    }
+
+    /**
+     * Records the given identifier.
+     *
+     * @param identifier the identifier that occurred
+     */
+    public void add(final @NonNull Identifier<?> identifier) {
+        addHash(IdentifierHash.hash64(identifier));
+    }
+
+    /**
+     * Records an identifier by its {@link IdentifierHash} hash.
+     *
+     * @param hash the hash of the identifier
+     */
+    public void addHash(final long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the guard bit caps the rank once all remaining bits are zero
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        raise(index, rank);
+    }
+
+    /**
+     * Estimates the number of distinct identifiers recorded.
+     *
+     * @return the estimated distinct count
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            byte register = (byte) REGISTERS.getOpaque(registers, i);
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) zeros++;
+        }
+
+        double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1.0 + 1.079 / m);
+        };
+        double estimate = alpha * m * m / sum;
+
+        // linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log((double) m / zeros);
+        return Math.round(estimate);
+    }
+
+    /**
+     * Merges the registers of another sketch with the same precision into this one.
+     * Afterwards this sketch estimates the distinct count of the union.
+     *
+     * @param other the sketch to merge into this one
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(final @NonNull HyperLogLog other) {
+        if (other.precision != precision)
+            throw new IllegalArgumentException("Only sketches of the same precision can be merged");
+
+        for (int i = 0; i < registers.length; i++) {
+            byte register = (byte) REGISTERS.getOpaque(other.registers, i);
+            if (register != 0) raise(i, register);
+        }
+    }
+
+    /**
+     * Returns the precision of this sketch.
+     *
+     * @return the number of index bits
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Writes the sketch. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final @NonNull OutputStream out) throws IOException {
+        byte[] copy = new byte[registers.length];
+        for (int i = 0; i < copy.length; i++)
+            copy[i] = (byte) REGISTERS.getOpaque(registers, i);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(precision);
+        data.write(copy);
+        data.flush();
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo(OutputStream)}. Exactly the sketch bytes are
+     * consumed and the stream is not closed.
+     *
+     * @param in the stream to read from
+     * @return the restored sketch
+     * @throws IOException if reading fails or the stream holds no sketch
+     */
+    public static @NonNull HyperLogLog readFrom(final @NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("The stream does not contain a HyperLogLog sketch");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Unsupported sketch version " + version);
+
+        int precision = data.readInt();
+        if (precision < 4 || precision > 18) throw new IOException("Corrupt sketch precision " + precision);
+
+        HyperLogLog sketch = new HyperLogLog(precision);
+        data.readFully(sketch.registers);
+        return sketch;
+    }
+
+    /**
+     * Returns a string representation of this sketch.
+     * <p>
+     * The format is: {@code "HyperLogLog{precision=" + precision() + ", estimate=" + estimate() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the precision and current estimate
+     */
+    @Override
+    public String toString() {
+        return "HyperLogLog{precision=" + precision + ", estimate=" + estimate() + "}";
+    }
+
+    private void raise(final int index, final byte rank) {
+        byte current = (byte) REGISTERS.getOpaque(registers, index);
+        while (rank > current) {
+            byte witness = (byte) REGISTERS.compareAndExchange(registers, index, current, rank);
+            if (witness == current) return;
+            current = witness;
+        }
+    }
+}
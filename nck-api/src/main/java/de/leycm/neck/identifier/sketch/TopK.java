@@ -0,0 +1,385 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.sketch;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.hash.IdentifierHash;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A concurrent Space-Saving sketch tracking the most frequent {@link Identifier}s.
+ * <p>
+ * The sketch keeps a fixed number of counters. A new identifier takes over the counter with
+ * the smallest count and inherits that count as its possible overestimation. Identifiers are
+ * spread over independently locked stripes by their {@link IdentifierHash}, so threads
+ * counting different identifiers rarely contend, and since every identifier always lands on
+ * the same stripe the stripes never track the same identifier twice.
+ * </p>
+ * <p>
+ * Each stripe is a Space-Saving summary of its own: an identifier that occurred more often
+ * than {@code stripeTotal / stripeCounters} times, counting only the occurrences of the
+ * identifiers on its stripe, is guaranteed to be tracked. A hot identifier on a busy stripe
+ * can therefore be evicted below {@code total / counters}. A sketch created with a single
+ * stripe, {@code TopK.create(counters, 1)}, has the classic guarantee that every identifier
+ * occurring more often than {@code total / counters} times is tracked.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * TopK hotKeys = TopK.create(1024);
+ * hotKeys.add(key);
+ *
+ * for (TopK.Entry entry : hotKeys.top(10))
+ *     log.info(entry.identifier() + " ~" + entry.count());
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see CountMinSketch
+ */
+public final class TopK {
+
+    /**
+     * A tracked identifier.
+     *
+     * @param identifier the identifier
+     * @param count      the estimated count, never lower than the real count
+     * @param error      the maximum overestimation of the count
+     */
+    public record Entry(@NonNull Identifier<?> identifier, long count, long error) {
+
+        /**
+         * Returns the count this identifier reached at least.
+         *
+         * @return the guaranteed count
+         */
+        public long guaranteed() {
+            return count - error;
+        }
+    }
+
+    private static final Comparator<Entry> BY_COUNT = Comparator.comparingLong(Entry::count).reversed();
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private TopK(final int counters, final int stripes) {
+        this.stripes = new Stripe[stripes];
+        this.mask = stripes - 1;
+        for (int i = 0; i < stripes; i++)
+            this.stripes[i] = new Stripe(Math.max(1, (counters + stripes - 1) / stripes));
+    }
+
+    /**
+     * Creates a sketch with the given number of counters, striped by the number of processors.
+     * The guarantee of tracking frequent identifiers holds per stripe.
+     *
+     * @param counters the total number of counters, more counters give more accurate counts
+     * @return the new, empty sketch
+     * @throws IllegalArgumentException if the number of counters is not positive
+     */
+    public static @NonNull TopK create(final int counters) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return create(counters, Math.min(Integer.highestOneBit(Math.max(1, counters / 64)),
+                Integer.highestOneBit(processors * 2 - 1) << 1));
+    }
+
+    /**
+     * Creates a sketch with the given number of counters and stripes.
+     *
+     * @param counters the total number of counters
+     * @param stripes  the number of independently locked stripes, rounded up to a power of two,
+     *                 {@code 1} for a guarantee over all identifiers
+     * @return the new, empty sketch
+     * @throws IllegalArgumentException if an argument is not positive
+     */
+    public static @NonNull TopK create(final int counters, final int stripes) {
+        if (counters <= 0) throw new IllegalArgumentException("The number of counters must be positive");
+        if (stripes <= 0) throw new IllegalArgumentException("The number of stripes must be positive");
+        return new TopK(counters, Integer.highestOneBit(stripes * 2 - 1));
+    }
+
+    /**
+     * Counts one occurrence of the given identifier.
+     *
+     * @param identifier the identifier that occurred
+     */
+    public void add(final @NonNull Identifier<?> identifier) {
+        add(identifier, 1L);
+    }
+
+    /**
+     * Counts occurrences of the given identifier.
+     *
+     * @param identifier the identifier that occurred
+     * @param count      the number of occurrences
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public void add(final @NonNull Identifier<?> identifier, final long count) {
+        if (count < 0L) throw new IllegalArgumentException("The count must not be negative");
+        if (count == 0L) return;
+
+        stripes[stripeOf(identifier)].add(identifier, count);
+    }
+
+    /**
+     * Returns the most frequent identifiers, most frequent first.
+     *
+     * @param k the maximum number of identifiers to return
+     * @return the top identifiers
+     */
+    public @NonNull List<Entry> top(final int k) {
+        List<Entry> entries = entries();
+        entries.sort(BY_COUNT);
+        return entries.size() <= k ? entries : new ArrayList<>(entries.subList(0, Math.max(0, k)));
+    }
+
+    /**
+     * Returns all tracked identifiers in no particular order.
+     *
+     * @return the tracked identifiers
+     */
+    public @NonNull List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Stripe stripe : stripes)
+            stripe.collect(entries);
+        return entries;
+    }
+
+    /**
+     * Returns the most often an identifier this sketch does not track can have occurred: the
+     * largest smallest counter of a full stripe, or {@code 0} if no stripe is full. Send it
+     * along with the {@link #entries()} for {@link #mergeAll(Collection, long)}.
+     *
+     * @return the upper bound of the count of any untracked identifier
+     */
+    public long minimum() {
+        long minimum = 0L;
+        for (Stripe stripe : stripes)
+            minimum = Math.max(minimum, stripe.collect(null));
+        return minimum;
+    }
+
+    /**
+     * Adds the tracked identifiers of another sketch, for example one filled by another thread.
+     * Counts and errors of identifiers tracked by both are added. An identifier tracked by only
+     * one of them is charged the smallest counter of the other's stripe as count and error, so
+     * counts stay upper bounds of the real counts.
+     *
+     * @param other the sketch to merge into this one
+     */
+    public void merge(final @NonNull TopK other) {
+        long[] minimums = new long[other.stripes.length];
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < minimums.length; i++)
+            minimums[i] = other.stripes[i].collect(entries);
+        merge(entries, identifier -> minimums[other.stripeOf(identifier)]);
+    }
+
+    /**
+     * Adds tracked identifiers, for example the {@link #entries()} received from another node,
+     * together with the {@link #minimum()} of the sketch they come from. Counts and errors
+     * of identifiers tracked by both are added; identifiers tracked only here are charged the
+     * given minimum as count and error, so counts stay upper bounds of the real counts.
+     *
+     * @param entries the entries to merge into this sketch
+     * @param minimum the {@link #minimum()} of the sketch the entries come from
+     * @throws IllegalArgumentException if the minimum is negative
+     */
+    public void mergeAll(final @NonNull Collection<Entry> entries, final long minimum) {
+        if (minimum < 0L) throw new IllegalArgumentException("The minimum must not be negative");
+        merge(entries, identifier -> minimum);
+    }
+
+    private void merge(final Collection<Entry> entries, final ToLongFunction<Identifier<?>> missing) {
+        List<List<Entry>> grouped = new ArrayList<>(stripes.length);
+        for (int i = 0; i < stripes.length; i++)
+            grouped.add(new ArrayList<>());
+        for (Entry entry : entries)
+            grouped.get(stripeOf(entry.identifier())).add(entry);
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i].merge(grouped.get(i), missing);
+    }
+
+    private int stripeOf(final Identifier<?> identifier) {
+        return (int) (IdentifierHash.hash64(identifier) >>> 32) & mask;
+    }
+
+    /**
+     * Returns a string representation of this sketch.
+     * <p>
+     * The format is: {@code "TopK{stripes=" + stripes + ", tracked=" + entries().size() + "}"}
+     * </p>
+     *
+     * @return a string representation containing the stripe count and tracked identifiers
+     */
+    @Override
+    public String toString() {
+        return "TopK{stripes=" + stripes.length + ", tracked=" + entries().size() + "}";
+    }
+
+    /**
+     * The counters of one stripe, a hash map for lookups and a min-heap on the counts
+     * to find the counter to replace.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Identifier<?>, Counter> counters;
+        private final Counter[] heap;
+        private int size;
+
+        private Stripe(final int capacity) {
+            this.counters = new HashMap<>(capacity * 2);
+            this.heap = new Counter[capacity];
+        }
+
+        private void add(final Identifier<?> identifier, final long count) {
+            lock.lock();
+            try {
+                insert(identifier, count, 0L);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Merges the entries of another summary that belong to this stripe. Counters the other
+         * summary does not track are charged its missing share afterwards, so a counter that
+         * takes over the smallest one inherits the count from before the merge.
+         */
+        private void merge(final List<Entry> entries, final ToLongFunction<Identifier<?>> missing) {
+            lock.lock();
+            try {
+                Set<Identifier<?>> merged = new HashSet<>(entries.size() * 2);
+                for (Entry entry : entries) {
+                    merged.add(entry.identifier());
+                    insert(entry.identifier(), entry.count(), entry.error());
+                }
+
+                boolean charged = false;
+                for (int i = 0; i < size; i++) {
+                    Counter counter = heap[i];
+                    if (merged.contains(counter.identifier)) continue;
+                    long share = missing.applyAsLong(counter.identifier);
+                    counter.count += share;
+                    counter.error += share;
+                    charged |= share != 0L;
+                }
+                if (charged)
+                    for (int i = (size >>> 1) - 1; i >= 0; i--)
+                        siftDown(i);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void insert(final Identifier<?> identifier, final long count, final long error) {
+            Counter counter = counters.get(identifier);
+            if (counter != null) {
+                counter.count += count;
+                counter.error += error;
+                siftDown(counter.index);
+                return;
+            }
+
+            if (size < heap.length) {
+                counter = new Counter(identifier, count, error);
+                counters.put(identifier, counter);
+                heap[size] = counter;
+                counter.index = size++;
+                siftUp(counter.index);
+                return;
+            }
+
+            // replace the smallest counter, its count becomes the error of the newcomer
+            counter = heap[0];
+            counters.remove(counter.identifier);
+            counter.identifier = identifier;
+            counter.error = counter.count + error;
+            counter.count += count;
+            counters.put(identifier, counter);
+            siftDown(0);
+        }
+
+        /**
+         * Adds the entries of this stripe to the given list, if any, and returns the smallest
+         * count if the stripe is full or {@code 0} otherwise.
+         */
+        private long collect(final List<Entry> entries) {
+            lock.lock();
+            try {
+                if (entries != null)
+                    for (int i = 0; i < size; i++)
+                        entries.add(new Entry(heap[i].identifier, heap[i].count, heap[i].error));
+                return size == heap.length ? heap[0].count : 0L;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void siftUp(int index) {
+            Counter counter = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent].count <= counter.count) break;
+                place(heap[parent], index);
+                index = parent;
+            }
+            place(counter, index);
+        }
+
+        private void siftDown(int index) {
+            Counter counter = heap[index];
+            while (true) {
+                int child = index * 2 + 1;
+                if (child >= size) break;
+                if (child + 1 < size && heap[child + 1].count < heap[child].count) child++;
+                if (counter.count <= heap[child].count) break;
+                place(heap[child], index);
+                index = child;
+            }
+            place(counter, index);
+        }
+
+        private void place(final Counter counter, final int index) {
+            heap[index] = counter;
+            counter.index = index;
+        }
+    }
+
+    private static final class Counter {
+
+        private Identifier<?> identifier;
+        private long count;
+        private long error;
+        private int index;
+
+        private Counter(final Identifier<?> identifier, final long count, final long error) {
+            this.identifier = identifier;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
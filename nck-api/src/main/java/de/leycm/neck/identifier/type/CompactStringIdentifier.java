@@ -0,0 +1,313 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.identifier.type;
+
+import de.leycm.neck.identifier.Identifier;
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An immutable, memory-compact identifier for string values stored as UTF-8 bytes.
+ * <p>
+ * Keys of up to 16 UTF-8 bytes are packed big-endian into two {@code long} fields, so such an
+ * identifier is a single 40 byte object (with compressed oops) instead of a record, a
+ * {@link String} and its backing array. Longer keys, and keys containing {@code U+0000},
+ * additionally keep their bytes in an array. Equality, hashing and ordering work on the raw
+ * bytes: two short keys are compared with two {@code long} comparisons. The ordering is the Unicode code point order, which only
+ * differs from {@link String#compareTo(String)} for supplementary characters.
+ * </p>
+ * <p>
+ * The identifier interoperates with {@link StringIdentifier} through {@link #original()} and
+ * the {@link CharSequence} methods. {@link #length()} never decodes and {@link #charAt(int)} is
+ * allocation-free for ASCII keys. Other keys decode their value on the first
+ * {@link #charAt(int)} and keep that {@link String}, so character-wise access costs the
+ * footprint of a {@link String} from then on; {@link #original()} and {@link #toString()}
+ * decode a new string without keeping it.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * CompactStringIdentifier id = CompactStringIdentifier.of("user-123");
+ * String original = id.original();              // "user-123"
+ * int length = id.length();                     // 8
+ * StringIdentifier wide = id.toStringIdentifier();
+ * String text = id.toString();                  // "string:user-123"
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see StringIdentifier
+ * @see CharSequence
+ */
+public final class CompactStringIdentifier implements Identifier<String>, CharSequence {
+
+    private static final int INLINE = 16;
+
+    /**
+     * The first eight UTF-8 bytes, big-endian and zero padded.
+     */
+    private final long first;
+
+    /**
+     * UTF-8 bytes eight to fifteen, big-endian and zero padded.
+     */
+    private final long second;
+
+    /**
+     * All UTF-8 bytes, only present for keys that do not fit inline.
+     */
+    private final byte[] overflow;
+
+    /**
+     * The length in UTF-16 code units, bitwise inverted for values that are not ASCII.
+     */
+    private final int chars;
+
+    /**
+     * The decoded value of a non-ASCII identifier once {@link #charAt(int)} needed it.
+     * Racy like {@link String#hashCode()}, every thread decodes the same immutable string.
+     */
+    private String decoded;
+
+    private CompactStringIdentifier(final long first, final long second, final byte[] overflow, final int chars) {
+        this.first = first;
+        this.second = second;
+        this.overflow = overflow;
+        this.chars = chars;
+    }
+
+    /**
+     * Creates an identifier for the given string.
+     *
+     * @param value the string value to use as identifier
+     * @return the identifier
+     */
+    public static @NonNull CompactStringIdentifier of(final @NonNull String value) {
+        return ofTrusted(value.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    /**
+     * Creates an identifier for the given UTF-8 bytes. The bytes are copied.
+     *
+     * @param utf8 the UTF-8 encoded value
+     * @return the identifier
+     */
+    public static @NonNull CompactStringIdentifier of(final byte @NonNull [] utf8) {
+        return ofTrusted(utf8.clone(), null);
+    }
+
+    /**
+     * Creates an identifier for the value of the given string identifier.
+     *
+     * @param identifier the identifier to convert
+     * @return the identifier
+     */
+    public static @NonNull CompactStringIdentifier of(final @NonNull StringIdentifier identifier) {
+        return of(identifier.value());
+    }
+
+    private static CompactStringIdentifier ofTrusted(final byte[] bytes, final String value) {
+        long first = pack(bytes, 0);
+        long second = pack(bytes, 8);
+
+        boolean inline = bytes.length <= INLINE;
+        boolean ascii = true;
+        for (byte b : bytes) {
+            if (b == 0) inline = false; // zero bytes are padding, a real one needs the array
+            if (b < 0) ascii = false;
+        }
+
+        // a value's length is kept by the encoding, unpaired surrogates become a single '?'
+        int chars = ascii ? bytes.length : ~(value != null ? value : new String(bytes, StandardCharsets.UTF_8)).length();
+        return new CompactStringIdentifier(first, second, inline ? null : bytes, chars);
+    }
+
+    /**
+     * Returns the original string value, decoded from the UTF-8 bytes.
+     *
+     * @return the original string value, guaranteed to be non-null
+     */
+    @Override
+    public String original() {
+        String value = decoded;
+        return value != null ? value : new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a copy of the UTF-8 bytes of this identifier.
+     *
+     * @return the UTF-8 bytes
+     */
+    public byte @NonNull [] utf8() {
+        return overflow != null ? overflow.clone() : bytes();
+    }
+
+    /**
+     * Returns the number of UTF-8 bytes of this identifier.
+     *
+     * @return the byte length
+     */
+    public int byteLength() {
+        if (overflow != null) return overflow.length;
+        if (second != 0L) return INLINE - Long.numberOfTrailingZeros(second) / 8;
+        if (first != 0L) return 8 - Long.numberOfTrailingZeros(first) / 8;
+        return 0;
+    }
+
+    /**
+     * Checks whether this identifier consists of ASCII characters only.
+     *
+     * @return {@code true} if every byte is below {@code 0x80}
+     */
+    public boolean isAscii() {
+        return chars >= 0;
+    }
+
+    /**
+     * Converts this identifier to a {@link StringIdentifier}.
+     *
+     * @return the string identifier with the same value
+     */
+    public @NonNull StringIdentifier toStringIdentifier() {
+        return new StringIdentifier(original());
+    }
+
+    /**
+     * Compares this identifier with the specified string value in code point order.
+     *
+     * @param other the string value to compare to (must not be null)
+     * @return a negative integer, zero, or a positive integer as this identifier's value
+     *         is less than, equal to, or greater than the specified value
+     * @throws NullPointerException if the specified value is null
+     */
+    @Override
+    public int compareTo(final @NonNull String other) {
+        return compareTo(of(other));
+    }
+
+    /**
+     * Compares this identifier with another compact identifier on their raw bytes.
+     *
+     * @param other the identifier to compare to (must not be null)
+     * @return a negative integer, zero, or a positive integer as this identifier's value
+     *         is less than, equal to, or greater than the specified value
+     * @throws NullPointerException if the specified identifier is null
+     */
+    public int compareTo(final @NonNull CompactStringIdentifier other) {
+        int compare = Long.compareUnsigned(first, other.first);
+        if (compare != 0) return compare;
+        compare = Long.compareUnsigned(second, other.second);
+        if (compare != 0 || (overflow == null && other.overflow == null)) return compare;
+        return Arrays.compareUnsigned(bytes(), other.bytes());
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) return true;
+        if (!(object instanceof CompactStringIdentifier other)) return false;
+        return first == other.first && second == other.second && Arrays.equals(overflow, other.overflow);
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = first * 0x9E3779B97F4A7C15L + second;
+        if (overflow != null) hash = hash * 31L + Arrays.hashCode(overflow);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Returns a string representation of this identifier.
+     * <p>
+     * The format is: {@code "string:" + value}, the same as for {@link StringIdentifier}
+     * </p>
+     *
+     * @return a string representation containing the identifier type and value
+     */
+    @Override
+    @NonNull
+    public String toString() {
+        return "string:" + original();
+    }
+
+    /**
+     * Returns the length of the value in UTF-16 code units.
+     *
+     * @return the length of the character sequence
+     */
+    @Override
+    public int length() {
+        return chars >= 0 ? chars : ~chars;
+    }
+
+    /**
+     * Returns the {@code char} value at the specified index of the value.
+     *
+     * @param index the index of the {@code char} value to be returned
+     * @return the specified {@code char} value
+     * @throws IndexOutOfBoundsException if the {@code index} argument is negative or not less than {@code length()}
+     */
+    @Override
+    public char charAt(final int index) {
+        if (chars < 0) return decoded().charAt(index);
+        if (index < 0 || index >= chars)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + chars);
+        return (char) byteAt(index);
+    }
+
+    /**
+     * Returns a {@code CharSequence} that is a subsequence of the value.
+     *
+     * @param start the start index, inclusive
+     * @param end the end index, exclusive
+     * @return the specified subsequence
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} are negative,
+     *         if {@code end} is greater than {@code length()}, or if {@code start} is greater than {@code end}
+     */
+    @Override
+    @NonNull
+    public CharSequence subSequence(final int start, final int end) {
+        return original().subSequence(start, end);
+    }
+
+    private String decoded() {
+        String value = decoded;
+        if (value == null) decoded = value = new String(bytes(), StandardCharsets.UTF_8);
+        return value;
+    }
+
+    private int byteAt(final int index) {
+        if (overflow != null) return overflow[index] & 0xFF;
+        long word = index < 8 ? first : second;
+        return (int) (word >>> (56 - (index & 7) * 8)) & 0xFF;
+    }
+
+    private byte[] bytes() {
+        if (overflow != null) return overflow;
+
+        byte[] bytes = new byte[byteLength()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) byteAt(i);
+        return bytes;
+    }
+
+    private static long pack(final byte[] bytes, final int offset) {
+        long word = 0L;
+        for (int i = 0; i < 8; i++) {
+            int index = offset + i;
+            word = (word << 8) | (index < bytes.length ? bytes[index] & 0xFFL : 0L);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.instance;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link Initializable} implementation for the compile-time index.
+ * <p>
+ * The {@code nck-processor} annotation processor collects all annotated classes of a
+ * compilation into a generated {@link InitializableIndex}. At startup
+ * {@link InitializableRegistry#loadIndex()} registers them in dependency order without
+ * reflection or classpath scanning.
+ * </p>
+ * <p>
+ * Instances are created through the static, parameterless method annotated with
+ * {@link InitializableFactory}, or through the public no-argument constructor if there is none.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @AutoInitializable(value = Storage.class, dependsOn = Config.class)
+ * public final class FileStorage implements Storage {
+ *     public FileStorage() { }
+ * }
+ * }</pre>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see InitializableIndex
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface AutoInitializable {
+
+    /**
+     * The class the instance is registered for. Defaults to the annotated class itself.
+     *
+     * @return the registration class
+     */
+    Class<? extends Initializable> value() default Initializable.class;
+
+    /**
+     * The registration classes that must be registered before this one.
+     *
+     * @return the dependencies of this instance
+     */
+    Class<? extends Initializable>[] dependsOn() default {};
+
+}
@@ -87,6 +87,39 @@ public interface Initializable {
         InitializableRegistry.register(instance, clazz);
     }
 
+    /**
+     * Atomically replaces the instance registered for the specified class. Lookups see
+     * either the old or the new instance, the old instance is uninstalled once all readers
+     * using it through {@link #withInstance(Class, Function)} have finished.
+     *
+     * @param <T>      the type of the instance
+     * @param instance the new instance to register
+     * @param clazz    the class to associate with the instance
+     * @throws RuntimeException if no instance is registered
+     * @see InitializableRegistry#replace(Initializable, Class)
+     */
+    static <T extends Initializable> void replace(final @NonNull T instance,
+                                                  final @NonNull Class<T> clazz) {
+        InitializableRegistry.replace(instance, clazz);
+    }
+
+    /**
+     * Runs the given action with the registered instance of the specified class. The
+     * instance is not uninstalled while the action runs.
+     *
+     * @param <T>    the type of the instance
+     * @param <R>    the type of the action result
+     * @param clazz  the class of the instance to use
+     * @param action the action to run with the instance
+     * @return the result of the action
+     * @throws NullPointerException if no instance is registered
+     * @see InitializableRegistry#withInstance(Class, Function)
+     */
+    static <T extends Initializable, R> R withInstance(final @NonNull Class<T> clazz,
+                                                       final @NonNull Function<? super T, ? extends R> action) {
+        return InitializableRegistry.withInstance(clazz, action);
+    }
+
     /**
      * Unregisters the instance associated with the specified class.
      *
@@ -99,6 +132,47 @@ public interface Initializable {
         InitializableRegistry.unregister(clazz);
     }
 
+    /**
+     * Registers all {@link AutoInitializable} classes listed in the compile-time
+     * {@link InitializableIndex} providers on the class path.
+     *
+     * @throws RuntimeException if a dependency is missing or the dependencies are cyclic
+     * @see InitializableRegistry#loadIndex()
+     */
+    static void loadIndex() {
+        InitializableRegistry.loadIndex();
+    }
+
+    /**
+     * Freezes the registry so all later lookups are served from an immutable snapshot.
+     * Mutations fail with an {@link IllegalStateException} until {@link #thaw()} is called.
+     *
+     * @see InitializableRegistry#freeze()
+     */
+    static void freeze() {
+        InitializableRegistry.freeze();
+    }
+
+    /**
+     * Thaws a frozen registry so it accepts mutations again. Call {@link #freeze()}
+     * afterwards to republish a new snapshot.
+     *
+     * @see InitializableRegistry#thaw()
+     */
+    static void thaw() {
+        InitializableRegistry.thaw();
+    }
+
+    /**
+     * Checks whether the registry is currently frozen.
+     *
+     * @return {@code true} if the registry is frozen
+     * @see InitializableRegistry#isFrozen()
+     */
+    static boolean isFrozen() {
+        return InitializableRegistry.isFrozen();
+    }
+
     /**
      * Lifecycle hook called when the instance is installed in the registry.
      * <p>
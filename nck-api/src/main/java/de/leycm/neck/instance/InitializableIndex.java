@@ -0,0 +1,51 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.instance;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A compile-time index of {@link AutoInitializable} classes.
+ * <p>
+ * Implementations are generated by the {@code nck-processor} annotation processor and
+ * registered as {@link java.util.ServiceLoader} providers. Each entry references its
+ * factory through a method reference, so loading the index needs no reflection.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see InitializableRegistry#loadIndex()
+ */
+public interface InitializableIndex {
+
+    /**
+     * Returns the indexed classes of this index.
+     *
+     * @return the entries, in no particular order
+     */
+    @NonNull List<Entry<?>> entries();
+
+    /**
+     * A single indexed class.
+     *
+     * @param type         the class the instance is registered for
+     * @param factory      creates the instance
+     * @param dependencies the registration classes that must be registered first
+     * @param <T>          the type of the instance
+     */
+    record Entry<T extends Initializable>(@NonNull Class<T> type,
+                                          @NonNull Supplier<? extends T> factory,
+                                          @NonNull List<Class<? extends Initializable>> dependencies) { }
+
+}
@@ -11,8 +11,15 @@
 package de.leycm.neck.instance;
 
 import lombok.NonNull;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 /**
@@ -21,6 +28,18 @@ import java.util.function.Function;
  * This class allows registering, retrieving, and unregistering instances
  * that implement the {@link Initializable} interface.
  * </p>
+ * <p>
+ * Once bootstrapping is done the registry can be {@link #freeze() frozen}. Lookups are then
+ * served from an immutable {@link RegistrySnapshot} without any synchronization, and every
+ * mutation fails fast until the registry is explicitly {@link #thaw() thawed}.
+ * </p>
+ * <p>
+ * Instances can be hot-swapped with {@link #replace(Initializable, Class)}. Readers never
+ * block and never observe a missing registration. Readers that use an instance through
+ * {@link #withInstance(Class, Function)} are tracked per epoch, and the
+ * {@link Initializable#onUninstall()} hook of a replaced or unregistered instance only runs
+ * once all of them have finished.
+ * </p>
  *
  * @author LeyCM
  * @since 1.0.1
@@ -31,7 +50,22 @@ public class InitializableRegistry {
     /**
      * Internal map storing the registered instances.
      */
-    private static final Map<Class<?>, Initializable> REGISTRY = new HashMap<>();
+    private static final Map<Class<?>, Initializable> REGISTRY = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes all writers, readers never take it.
+     */
+    private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+
+    /**
+     * Tracks readers so uninstall hooks can wait for them to drain.
+     */
+    private static final RegistryEpoch EPOCH = new RegistryEpoch();
+
+    /**
+     * Immutable snapshot serving lookups while the registry is frozen, {@code null} otherwise.
+     */
+    private static volatile RegistrySnapshot frozen;
 
     /**
      * Retrieves the registered instance for the specified class.
@@ -44,7 +78,8 @@ public class InitializableRegistry {
      */
     @SuppressWarnings("unchecked")
     protected static <T extends Initializable> @NonNull T getInstance(final @NonNull Class<T> clazz) {
-        Initializable instance = REGISTRY.get(clazz);
+        RegistrySnapshot snapshot = frozen;
+        Initializable instance = snapshot != null ? snapshot.get(clazz) : REGISTRY.get(clazz);
 
         if (instance == null)
             throw new NullPointerException("No instance registered for " + clazz.getSimpleName());
@@ -55,6 +90,34 @@ public class InitializableRegistry {
         return (T) instance;
     }
 
+    /**
+     * Runs the given action with the instance registered for the specified class.
+     * <p>
+     * The instance is guaranteed not to be uninstalled while the action runs: a concurrent
+     * {@link #replace(Initializable, Class)} or {@link #unregister(Class)} delays the
+     * {@link Initializable#onUninstall()} hook until the action returned. The action may look
+     * up, compute and register instances, but must not replace or unregister any, which would
+     * wait for the action itself.
+     * </p>
+     *
+     * @param <T>    the type of the instance
+     * @param <R>    the type of the action result
+     * @param clazz  the class of the instance to use
+     * @param action the action to run with the instance
+     * @return the result of the action
+     * @throws NullPointerException if no instance is registered for the class
+     * @throws ClassCastException   if the registered instance is not assignable to the class
+     */
+    protected static <T extends Initializable, R> R withInstance(final @NonNull Class<T> clazz,
+                                                                 final @NonNull Function<? super T, ? extends R> action) {
+        int slot = EPOCH.enter();
+        try {
+            return action.apply(getInstance(clazz));
+        } finally {
+            EPOCH.exit(slot);
+        }
+    }
+
     /**
      * Retrieves the registered instance for the specified class, or computes and registers it
      * if not already present.
@@ -69,12 +132,24 @@ public class InitializableRegistry {
      * @param mappingFunction a function to compute a new instance if none is registered
      * @return the registered or newly computed instance
      * @throws ClassCastException if the registered instance is not assignable to the class
+     * @throws IllegalStateException if the registry is frozen and no instance is registered
      * @see #register(Initializable, Class)
      */
     @SuppressWarnings("unchecked")
     protected static <T extends Initializable> @NonNull T computeIfAbsent(final @NonNull Class<T> clazz,
                                                                           final @NonNull Function<Class<?>, T> mappingFunction) {
-        Initializable instance = REGISTRY.computeIfAbsent(clazz, mappingFunction);
+        RegistrySnapshot snapshot = frozen;
+        Initializable instance = snapshot != null ? snapshot.get(clazz) : REGISTRY.get(clazz);
+
+        if (instance == null) {
+            WRITE_LOCK.lock();
+            try {
+                ensureNotFrozen();
+                instance = REGISTRY.computeIfAbsent(clazz, mappingFunction);
+            } finally {
+                WRITE_LOCK.unlock();
+            }
+        }
 
         if (!clazz.isInstance(instance))
             throw new ClassCastException("Registered instance is not of type " + clazz.getSimpleName());
@@ -89,7 +164,8 @@ public class InitializableRegistry {
      * @return {@code true} if an instance is registered for the class, {@code false} otherwise
      */
     protected static boolean hasInstance(final @NonNull Class<?> clazz) {
-        return REGISTRY.containsKey(clazz);
+        RegistrySnapshot snapshot = frozen;
+        return snapshot != null ? snapshot.contains(clazz) : REGISTRY.containsKey(clazz);
     }
 
     /**
@@ -100,29 +176,236 @@ public class InitializableRegistry {
      * @param instance the instance to register
      * @param clazz    the class the instance should be associated with
      * @throws RuntimeException if an instance is already registered for the class
+     * @throws IllegalStateException if the registry is frozen
      */
     protected static <T extends Initializable> void register(final @NonNull T instance,
                                                              final @NonNull Class<T> clazz) {
-        if (REGISTRY.containsKey(clazz))
-            throw new RuntimeException("An instance of " + clazz.getSimpleName() + " is already registered");
+        WRITE_LOCK.lock();
+        try {
+            ensureNotFrozen();
+            if (REGISTRY.containsKey(clazz))
+                throw new RuntimeException("An instance of " + clazz.getSimpleName() + " is already registered");
+
+            RegistryLifecycleEvent event = new RegistryLifecycleEvent();
+            event.begin();
+
+            instance.onInstall();
+            REGISTRY.put(clazz, instance);
 
-        instance.onInstall();
-        REGISTRY.put(clazz, instance);
+            commit(event, clazz, RegistryLifecycleEvent.REGISTER);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the instance registered for the specified class.
+     * <p>
+     * Calls {@link Initializable#onInstall()} on the new instance and then publishes it,
+     * so every lookup sees either the old or the new instance and never a gap. A frozen
+     * registry republishes its snapshot. The {@link Initializable#onUninstall()} hook of the
+     * old instance runs after all readers that entered through
+     * {@link #withInstance(Class, Function)} before the swap have finished. The write lock is
+     * released before waiting for them, so their actions may register or compute instances.
+     * </p>
+     *
+     * @param <T>      the type of the instance
+     * @param instance the new instance to register
+     * @param clazz    the class the instance should be associated with
+     * @throws RuntimeException if no instance is registered for the class
+     */
+    protected static <T extends Initializable> void replace(final @NonNull T instance,
+                                                            final @NonNull Class<T> clazz) {
+        Initializable previous;
+        WRITE_LOCK.lock();
+        try {
+            previous = REGISTRY.get(clazz);
+            if (previous == null)
+                throw new RuntimeException("There is no instance of " + clazz.getSimpleName());
+
+            RegistryLifecycleEvent event = new RegistryLifecycleEvent();
+            event.begin();
+
+            instance.onInstall();
+            REGISTRY.put(clazz, instance);
+            if (frozen != null) frozen = RegistrySnapshot.of(REGISTRY);
+
+            commit(event, clazz, RegistryLifecycleEvent.REPLACE);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+
+        EPOCH.synchronize();
+        previous.onUninstall();
     }
 
     /**
      * Unregisters the instance associated with the specified class.
-     * Calls {@link Initializable#onUninstall()} on the instance before removal.
+     * Calls {@link Initializable#onUninstall()} on the instance after removal, once all
+     * readers that entered through {@link #withInstance(Class, Function)} have finished.
+     * The write lock is released before waiting for them.
      *
      * @param <T>   the type of the instance
      * @param clazz the class whose instance should be unregistered
      * @throws RuntimeException if no instance is registered for the class
+     * @throws IllegalStateException if the registry is frozen
      */
     protected static <T extends Initializable> void unregister(final @NonNull Class<T> clazz) {
-        if (!REGISTRY.containsKey(clazz))
-            throw new RuntimeException("There is no instance of " + clazz.getSimpleName());
+        Initializable instance;
+        WRITE_LOCK.lock();
+        try {
+            ensureNotFrozen();
+            instance = REGISTRY.remove(clazz);
+            if (instance == null)
+                throw new RuntimeException("There is no instance of " + clazz.getSimpleName());
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+
+        EPOCH.synchronize();
+
+        RegistryLifecycleEvent event = new RegistryLifecycleEvent();
+        event.begin();
+        instance.onUninstall();
+        commit(event, clazz, RegistryLifecycleEvent.UNREGISTER);
+    }
+
+    /**
+     * Registers every class of the {@link InitializableIndex} providers found through
+     * {@link ServiceLoader}. The indexes are generated at compile time from
+     * {@link AutoInitializable} classes, so no reflection or classpath scanning is involved.
+     *
+     * @throws RuntimeException if a dependency is missing or the dependencies are cyclic
+     * @throws IllegalStateException if the registry is frozen
+     * @see #loadIndex(Iterable)
+     */
+    protected static void loadIndex() {
+        loadIndex(ServiceLoader.load(InitializableIndex.class));
+    }
+
+    /**
+     * Registers every class of the given indexes. Entries are registered after their
+     * dependencies, classes that already have a registered instance are skipped.
+     *
+     * @param indexes the indexes to load
+     * @throws RuntimeException if a dependency is missing or the dependencies are cyclic
+     * @throws IllegalStateException if the registry is frozen
+     */
+    protected static void loadIndex(final @NonNull Iterable<? extends InitializableIndex> indexes) {
+        WRITE_LOCK.lock();
+        try {
+            ensureNotFrozen();
+
+            Map<Class<?>, InitializableIndex.Entry<?>> pending = new LinkedHashMap<>();
+            for (InitializableIndex index : indexes)
+                for (InitializableIndex.Entry<?> entry : index.entries())
+                    if (!REGISTRY.containsKey(entry.type()) && pending.putIfAbsent(entry.type(), entry) != null)
+                        throw new RuntimeException(entry.type().getSimpleName() + " is indexed more than once");
+
+            Set<Class<?>> visiting = new HashSet<>();
+            for (InitializableIndex.Entry<?> entry : new ArrayList<>(pending.values()))
+                registerIndexed(entry, pending, visiting);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Registers an indexed entry after its pending dependencies (depth first).
+     *
+     * @param entry    the entry to register
+     * @param pending  the entries not registered yet
+     * @param visiting the entries on the current dependency path
+     */
+    private static void registerIndexed(final InitializableIndex.Entry<?> entry,
+                                        final Map<Class<?>, InitializableIndex.Entry<?>> pending,
+                                        final Set<Class<?>> visiting) {
+        if (!pending.containsKey(entry.type())) return;
+        if (!visiting.add(entry.type()))
+            throw new RuntimeException("Cyclic dependency involving " + entry.type().getSimpleName());
+
+        for (Class<? extends Initializable> dependency : entry.dependencies()) {
+            InitializableIndex.Entry<?> indexed = pending.get(dependency);
+            if (indexed != null)
+                registerIndexed(indexed, pending, visiting);
+            else if (!REGISTRY.containsKey(dependency))
+                throw new RuntimeException("Missing dependency " + dependency.getSimpleName()
+                        + " of " + entry.type().getSimpleName());
+        }
+
+        register(entry);
+        pending.remove(entry.type());
+        visiting.remove(entry.type());
+    }
+
+    private static <T extends Initializable> void register(final InitializableIndex.Entry<T> entry) {
+        register(entry.factory().get(), entry.type());
+    }
+
+    /**
+     * Freezes the registry. The current registrations are compiled into an immutable
+     * snapshot that serves all later lookups without synchronization. Freezing an
+     * already frozen registry republishes a fresh snapshot.
+     *
+     * @see #thaw()
+     */
+    protected static void freeze() {
+        WRITE_LOCK.lock();
+        try {
+            frozen = RegistrySnapshot.of(REGISTRY);
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Thaws a frozen registry so it accepts mutations again. Lookups go back to the
+     * mutable registrations until {@link #freeze()} publishes a new snapshot.
+     */
+    protected static void thaw() {
+        WRITE_LOCK.lock();
+        try {
+            frozen = null;
+        } finally {
+            WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the registry is currently frozen.
+     *
+     * @return {@code true} if lookups are served from an immutable snapshot
+     */
+    protected static boolean isFrozen() {
+        return frozen != null;
+    }
+
+    /**
+     * Fails fast if the registry is frozen.
+     *
+     * @throws IllegalStateException if the registry is frozen
+     */
+    private static void ensureNotFrozen() {
+        if (frozen != null)
+            throw new IllegalStateException("The registry is frozen, thaw it before mutating");
+    }
+
+    /**
+     * Commits a lifecycle event if JFR is recording it. The event is only
+     * populated when it will be written.
+     *
+     * @param event  the event started before the lifecycle hook
+     * @param clazz  the class that was registered or unregistered
+     * @param action the performed action
+     */
+    private static void commit(final RegistryLifecycleEvent event,
+                               final Class<?> clazz,
+                               final String action) {
+        event.end();
+        if (!event.shouldCommit()) return;
 
-        REGISTRY.get(clazz).onUninstall();
-        REGISTRY.remove(clazz);
+        event.type = clazz;
+        event.action = action;
+        event.commit();
     }
 }
\ No newline at end of file
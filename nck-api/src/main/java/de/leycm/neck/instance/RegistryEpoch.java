@@ -0,0 +1,102 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.instance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Epoch-based reader tracking for the {@link InitializableRegistry}.
+ * <p>
+ * Readers {@link #enter() enter} the current epoch before looking up an instance and
+ * {@link #exit(int) exit} once they are done with it. Entering and exiting is an
+ * atomic increment or decrement on a striped, padded counter and never blocks; a reader
+ * racing with an epoch advance simply retries on the new epoch.
+ * A writer publishes its change first and then calls {@link #synchronize()}, which
+ * advances the epoch and waits until every reader of the previous epoch has exited.
+ * Readers entering after the advance already observe the published change.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see InitializableRegistry#replace(Initializable, Class)
+ */
+final class RegistryEpoch {
+
+    /**
+     * Longs between two used counters, keeps each stripe on its own cache line.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLong epoch = new AtomicLong();
+    private final ReentrantLock writers = new ReentrantLock();
+    private final AtomicLongArray readers;
+    private final int stripeMask;
+
+    RegistryEpoch() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        this.stripeMask = stripes - 1;
+        this.readers = new AtomicLongArray(stripes * 2 * PADDING);
+    }
+
+    /**
+     * Enters the current epoch.
+     *
+     * @return the slot to pass to {@link #exit(int)}
+     */
+    int enter() {
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        while (true) {
+            long current = epoch.get();
+            int slot = (stripe * 2 + (int) (current & 1L)) * PADDING;
+            readers.incrementAndGet(slot);
+
+            // a writer advanced in between, it may already have checked this slot
+            if (epoch.get() == current) return slot;
+            readers.decrementAndGet(slot);
+        }
+    }
+
+    /**
+     * Exits the epoch entered with the given slot.
+     *
+     * @param slot the slot returned by {@link #enter()}
+     */
+    void exit(final int slot) {
+        readers.decrementAndGet(slot);
+    }
+
+    /**
+     * Advances the epoch and waits until all readers of the previous epoch exited.
+     * Concurrent writers wait for each other, so each drains only its own epoch.
+     */
+    void synchronize() {
+        writers.lock();
+        try {
+            int parity = (int) (epoch.getAndIncrement() & 1L);
+
+            for (int spins = 0; !drained(parity); spins++) {
+                if (spins < 64) Thread.onSpinWait();
+                else LockSupport.parkNanos(this, 10_000L);
+            }
+        } finally {
+            writers.unlock();
+        }
+    }
+
+    private boolean drained(final int parity) {
+        for (int stripe = 0; stripe <= stripeMask; stripe++)
+            if (readers.get((stripe * 2 + parity) * PADDING) != 0L) return false;
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.instance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded when an instance is registered in, replaced in or unregistered from
+ * the {@link InitializableRegistry}. The event duration covers the lifecycle hook of the
+ * action: {@link Initializable#onInstall()} for a registration or replacement and
+ * {@link Initializable#onUninstall()} for a removal. Waiting for readers is not included.
+ * <p>
+ * The event is disabled by default, enable {@code de.leycm.neck.RegistryLifecycle}
+ * in the recording settings to collect it.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@Name("de.leycm.neck.RegistryLifecycle")
+@Label("Registry Lifecycle")
+@Category({"neck", "Registry"})
+@Description("Registration or removal of an Initializable including its lifecycle hook")
+@Enabled(false)
+final class RegistryLifecycleEvent extends Event {
+
+    static final String REGISTER = "register";
+    static final String UNREGISTER = "unregister";
+    static final String REPLACE = "replace";
+
+    @Label("Class")
+    Class<?> type;
+
+    @Label("Action")
+    String action;
+
+}
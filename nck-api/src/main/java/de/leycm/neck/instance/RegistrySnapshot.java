@@ -0,0 +1,109 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.instance;
+
+import lombok.NonNull;
+
+import java.util.Map;
+
+/**
+ * An immutable, array-indexed copy of the registrations of the {@link InitializableRegistry}.
+ * <p>
+ * Keys are stored in an open-addressing table with linear probing and a load factor of at
+ * most one half, so a lookup is a multiplicative hash of the class identity followed by
+ * a few reference comparisons on a flat array. The arrays are never written after
+ * construction and the snapshot is published through a volatile field, so lookups need
+ * no synchronization.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see InitializableRegistry#freeze()
+ */
+final class RegistrySnapshot {
+
+    private static final int GOLDEN = 0x9E3779B9;
+
+    private final Class<?>[] keys;
+    private final Initializable[] values;
+    private final int mask;
+    private final int size;
+
+    private RegistrySnapshot(final Class<?>[] keys, final Initializable[] values, final int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Compiles the given registrations into a snapshot.
+     *
+     * @param registrations the registrations to copy
+     * @return the new snapshot
+     */
+    static @NonNull RegistrySnapshot of(final @NonNull Map<Class<?>, Initializable> registrations) {
+        int capacity = Integer.highestOneBit(Math.max(2, registrations.size() * 2 - 1)) << 1;
+        Class<?>[] keys = new Class<?>[capacity];
+        Initializable[] values = new Initializable[capacity];
+
+        for (Map.Entry<Class<?>, Initializable> entry : registrations.entrySet()) {
+            int index = indexOf(entry.getKey(), capacity - 1);
+            while (keys[index] != null)
+                index = (index + 1) & (capacity - 1);
+
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+
+        return new RegistrySnapshot(keys, values, registrations.size());
+    }
+
+    /**
+     * Returns the instance registered for exactly the given class.
+     *
+     * @param clazz the class to look up
+     * @return the registered instance, or {@code null} if there is none
+     */
+    Initializable get(final Class<?> clazz) {
+        int index = indexOf(clazz, mask);
+        Class<?> key;
+        while ((key = keys[index]) != null) {
+            if (key == clazz) return values[index];
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether an instance is registered for the given class.
+     *
+     * @param clazz the class to look up
+     * @return {@code true} if the class is registered
+     */
+    boolean contains(final Class<?> clazz) {
+        return get(clazz) != null;
+    }
+
+    /**
+     * Returns the number of registrations in this snapshot.
+     *
+     * @return the number of registrations
+     */
+    int size() {
+        return size;
+    }
+
+    private static int indexOf(final Class<?> clazz, final int mask) {
+        int hash = System.identityHashCode(clazz) * GOLDEN;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link Result} specialization for {@code double} values that avoids boxing.
+ * <p>
+ * A {@code DoubleResult} is either a success carrying a raw {@code double}, a failure
+ * carrying a {@link Throwable}, or empty. The accessors follow the semantics of
+ * {@link Result}, except that {@link #unwarp()} throws for an empty result since
+ * there is no {@code null} to return.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * DoubleResult score = DoubleResult.result(() -> scorer.score(user));
+ * double value = score.orElse(0.0);
+ * Result<Double> boxed = score.toResult();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result
+ * @see OptionalDouble
+ */
+public final class DoubleResult {
+    private static final DoubleResult EMPTY = new DoubleResult(0.0, null);
+
+    private final double value;
+    private final Throwable throwable;
+
+    private DoubleResult(final double value, final Throwable throwable) {
+        this.value = value;
+        this.throwable = throwable;
+    }
+
+    public static @NonNull DoubleResult result(final @NonNull DoubleSupplier supplier) {
+        try {
+            return DoubleResult.of(supplier.getAsDouble());
+        } catch (Throwable throwable) {
+            return DoubleResult.throwing(throwable);
+        }
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static @NonNull DoubleResult throwing(final @NonNull Throwable throwable) {
+        return new DoubleResult(0.0, throwable);
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static @NonNull DoubleResult of(final double value) {
+        return new DoubleResult(value, null);
+    }
+
+    @Contract(pure = true)
+    public static @NonNull DoubleResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Converts a boxed result into a {@code DoubleResult}, keeping its success, failure or empty state.
+     * A {@code null} success value converts to an empty result.
+     *
+     * @param result the result to convert
+     * @return the equivalent {@code DoubleResult}
+     */
+    public static @NonNull DoubleResult from(final @NonNull Result<Double> result) {
+        if (result.hasThrew()) return throwing(result.getThrowable());
+        if (result.isEmpty() || result.getResult() == null) return EMPTY;
+        return of(result.getResult().doubleValue());
+    }
+
+    /**
+     * Converts this result into a boxed {@link Result}, keeping its success, failure or empty state.
+     *
+     * @return the equivalent boxed result
+     */
+    public @NonNull Result<Double> toResult() {
+        if (throwable != null) return Result.throwing(throwable);
+        if (this == EMPTY) return Result.empty();
+        return Result.of(value);
+    }
+
+    public double unwarp() throws UnwrapException, NoSuchElementException {
+        return unwarp("Unwrap a Result with an Exception");
+    }
+
+    public double unwarp(final @NonNull String message) throws UnwrapException, NoSuchElementException {
+        if (throwable != null)
+            throw new UnwrapException(message, throwable);
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public double expect(final @NonNull String message) throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException(message + ": " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public double get() throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException("Result contains an exception: " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException("Result is empty");
+
+        return value;
+    }
+
+    public double recover(final @NonNull ToDoubleFunction<Throwable> handler) {
+        if (throwable != null)
+            return handler.applyAsDouble(throwable);
+
+        if (this == EMPTY)
+            return handler.applyAsDouble(new NoSuchElementException("Result is empty"));
+
+        return value;
+    }
+
+    public double orElse(final @NonNull DoubleSupplier supplier) {
+        return throwable == null && this != EMPTY ? value : supplier.getAsDouble();
+    }
+
+    public double orElse(final double other) {
+        return throwable == null && this != EMPTY ? value : other;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public boolean hasThrewA(final Class<? extends Throwable> exception) {
+        if (!hasThrew()) return false;
+        return exception.isInstance(throwable);
+    }
+
+    public boolean hasThrew() {
+        return throwable != null;
+    }
+
+    public @NonNull String asString() {
+        if (this == EMPTY) return "Result{empty}";
+
+        if (throwable != null)
+            return "Result{throwable=" + throwable + "}";
+
+        return "Result{result=" + value + "}";
+    }
+
+    public @NonNull String toString() {
+        return asString();
+    }
+
+    public @NonNull OptionalDouble asOptional() {
+        if (throwable != null || this == EMPTY) return OptionalDouble.empty();
+        return OptionalDouble.of(value);
+    }
+
+}
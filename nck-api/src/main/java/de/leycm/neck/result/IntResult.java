@@ -0,0 +1,196 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link Result} specialization for {@code int} values that avoids boxing.
+ * <p>
+ * An {@code IntResult} is either a success carrying a raw {@code int}, a failure
+ * carrying a {@link Throwable}, or empty. The accessors follow the semantics of
+ * {@link Result}, except that {@link #unwarp()} throws for an empty result since
+ * there is no {@code null} to return. Successes in {@code [-128, 127]} are cached.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * IntResult count = IntResult.result(() -> counter.next());
+ * int value = count.orElse(0);
+ * Result<Integer> boxed = count.toResult();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result
+ * @see OptionalInt
+ */
+public final class IntResult {
+    private static final IntResult EMPTY = new IntResult(0, null);
+    private static final IntResult[] CACHE = new IntResult[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new IntResult(i - 128, null);
+    }
+
+    private final int value;
+    private final Throwable throwable;
+
+    private IntResult(final int value, final Throwable throwable) {
+        this.value = value;
+        this.throwable = throwable;
+    }
+
+    public static @NonNull IntResult result(final @NonNull IntSupplier supplier) {
+        try {
+            return IntResult.of(supplier.getAsInt());
+        } catch (Throwable throwable) {
+            return IntResult.throwing(throwable);
+        }
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static @NonNull IntResult throwing(final @NonNull Throwable throwable) {
+        return new IntResult(0, throwable);
+    }
+
+    @Contract(pure = true)
+    public static @NonNull IntResult of(final int value) {
+        if (value >= -128 && value <= 127) return CACHE[value + 128];
+        return new IntResult(value, null);
+    }
+
+    @Contract(pure = true)
+    public static @NonNull IntResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Converts a boxed result into an {@code IntResult}, keeping its success, failure or empty state.
+     * A {@code null} success value converts to an empty result.
+     *
+     * @param result the result to convert
+     * @return the equivalent {@code IntResult}
+     */
+    public static @NonNull IntResult from(final @NonNull Result<Integer> result) {
+        if (result.hasThrew()) return throwing(result.getThrowable());
+        if (result.isEmpty() || result.getResult() == null) return EMPTY;
+        return of(result.getResult().intValue());
+    }
+
+    /**
+     * Converts this result into a boxed {@link Result}, keeping its success, failure or empty state.
+     *
+     * @return the equivalent boxed result
+     */
+    public @NonNull Result<Integer> toResult() {
+        if (throwable != null) return Result.throwing(throwable);
+        if (this == EMPTY) return Result.empty();
+        return Result.of(value);
+    }
+
+    public int unwarp() throws UnwrapException, NoSuchElementException {
+        return unwarp("Unwrap a Result with an Exception");
+    }
+
+    public int unwarp(final @NonNull String message) throws UnwrapException, NoSuchElementException {
+        if (throwable != null)
+            throw new UnwrapException(message, throwable);
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public int expect(final @NonNull String message) throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException(message + ": " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public int get() throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException("Result contains an exception: " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException("Result is empty");
+
+        return value;
+    }
+
+    public int recover(final @NonNull ToIntFunction<Throwable> handler) {
+        if (throwable != null)
+            return handler.applyAsInt(throwable);
+
+        if (this == EMPTY)
+            return handler.applyAsInt(new NoSuchElementException("Result is empty"));
+
+        return value;
+    }
+
+    public int orElse(final @NonNull IntSupplier supplier) {
+        return throwable == null && this != EMPTY ? value : supplier.getAsInt();
+    }
+
+    public int orElse(final int other) {
+        return throwable == null && this != EMPTY ? value : other;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public boolean hasThrewA(final Class<? extends Throwable> exception) {
+        if (!hasThrew()) return false;
+        return exception.isInstance(throwable);
+    }
+
+    public boolean hasThrew() {
+        return throwable != null;
+    }
+
+    public @NonNull String asString() {
+        if (this == EMPTY) return "Result{empty}";
+
+        if (throwable != null)
+            return "Result{throwable=" + throwable + "}";
+
+        return "Result{result=" + value + "}";
+    }
+
+    public @NonNull String toString() {
+        return asString();
+    }
+
+    public @NonNull OptionalInt asOptional() {
+        if (throwable != null || this == EMPTY) return OptionalInt.empty();
+        return OptionalInt.of(value);
+    }
+
+}
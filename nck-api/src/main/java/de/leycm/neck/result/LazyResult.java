@@ -0,0 +1,105 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import lombok.NonNull;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A memoizing supplier of a {@link Result}, computed on the first call and shared afterwards.
+ * <p>
+ * The supplier runs at most once per resolution. Its outcome is captured exactly like
+ * {@link Result#result(Supplier)} and published through a volatile field, so every later
+ * call is a single volatile read without any locking. Concurrent first calls wait for the one
+ * running computation. It always hands out a {@link Result.Success}, {@link Result.Failure}
+ * or {@link Result.Empty}, so the sealed hierarchy of {@link Result} stays exhaustive.
+ * </p>
+ * <p>
+ * Failures are cached by default. Without failure caching, the failure is handed out to the
+ * callers of the failing attempt and the next call computes again, until a successful or
+ * empty result is cached.
+ * </p>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. Waiting for the first computation
+ * uses a {@link ReentrantLock}, so it does not pin virtual threads.</p>
+ *
+ * @param <T> the type of the result value
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result#lazy(Supplier)
+ */
+final class LazyResult<T> implements Supplier<Result<T>> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean cacheFailures;
+
+    private volatile Result<T> resolved;
+    private Supplier<T> supplier;
+    private boolean computing;
+
+    LazyResult(final Supplier<T> supplier, final boolean cacheFailures) {
+        this.supplier = supplier;
+        this.cacheFailures = cacheFailures;
+    }
+
+    /**
+     * Computes the result if necessary and returns it.
+     *
+     * @return the resolved result
+     */
+    @Override
+    public @NonNull Result<T> get() {
+        Result<T> result = resolved;
+        if (result != null) return result;
+
+        lock.lock();
+        try {
+            result = resolved;
+            if (result != null) return result;
+
+            if (computing)
+                return Result.throwing(new IllegalStateException("Recursive evaluation of a lazy Result"));
+
+            computing = true;
+            try {
+                result = Result.result(supplier);
+            } finally {
+                computing = false;
+            }
+
+            if (cacheFailures || !result.hasThrew()) {
+                resolved = result;
+                supplier = null;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a string representation of this supplier.
+     * <p>
+     * The format is: {@code "Result{lazy}"} until the result is cached, the string
+     * representation of the cached result afterwards
+     * </p>
+     *
+     * @return a string representation of the cached result
+     */
+    @Override
+    public String toString() {
+        Result<T> result = resolved;
+        return result == null ? "Result{lazy}" : result.asString();
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link Result} specialization for {@code long} values that avoids boxing.
+ * <p>
+ * A {@code LongResult} is either a success carrying a raw {@code long}, a failure
+ * carrying a {@link Throwable}, or empty. The accessors follow the semantics of
+ * {@link Result}, except that {@link #unwarp()} throws for an empty result since
+ * there is no {@code null} to return. Successes in {@code [-128, 127]} are cached.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * LongResult total = LongResult.result(() -> ledger.sum(account));
+ * long value = total.orElse(0L);
+ * Result<Long> boxed = total.toResult();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result
+ * @see OptionalLong
+ */
+public final class LongResult {
+    private static final LongResult EMPTY = new LongResult(0L, null);
+    private static final LongResult[] CACHE = new LongResult[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new LongResult(i - 128L, null);
+    }
+
+    private final long value;
+    private final Throwable throwable;
+
+    private LongResult(final long value, final Throwable throwable) {
+        this.value = value;
+        this.throwable = throwable;
+    }
+
+    public static @NonNull LongResult result(final @NonNull LongSupplier supplier) {
+        try {
+            return LongResult.of(supplier.getAsLong());
+        } catch (Throwable throwable) {
+            return LongResult.throwing(throwable);
+        }
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static @NonNull LongResult throwing(final @NonNull Throwable throwable) {
+        return new LongResult(0L, throwable);
+    }
+
+    @Contract(pure = true)
+    public static @NonNull LongResult of(final long value) {
+        if (value >= -128L && value <= 127L) return CACHE[(int) value + 128];
+        return new LongResult(value, null);
+    }
+
+    @Contract(pure = true)
+    public static @NonNull LongResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Converts a boxed result into a {@code LongResult}, keeping its success, failure or empty state.
+     * A {@code null} success value converts to an empty result.
+     *
+     * @param result the result to convert
+     * @return the equivalent {@code LongResult}
+     */
+    public static @NonNull LongResult from(final @NonNull Result<Long> result) {
+        if (result.hasThrew()) return throwing(result.getThrowable());
+        if (result.isEmpty() || result.getResult() == null) return EMPTY;
+        return of(result.getResult().longValue());
+    }
+
+    /**
+     * Converts this result into a boxed {@link Result}, keeping its success, failure or empty state.
+     *
+     * @return the equivalent boxed result
+     */
+    public @NonNull Result<Long> toResult() {
+        if (throwable != null) return Result.throwing(throwable);
+        if (this == EMPTY) return Result.empty();
+        return Result.of(value);
+    }
+
+    public long unwarp() throws UnwrapException, NoSuchElementException {
+        return unwarp("Unwrap a Result with an Exception");
+    }
+
+    public long unwarp(final @NonNull String message) throws UnwrapException, NoSuchElementException {
+        if (throwable != null)
+            throw new UnwrapException(message, throwable);
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public long expect(final @NonNull String message) throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException(message + ": " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException(message + ": Result is empty");
+
+        return value;
+    }
+
+    public long get() throws NoSuchElementException {
+        if (throwable != null)
+            throw new NoSuchElementException("Result contains an exception: " + throwable.getMessage());
+
+        if (this == EMPTY)
+            throw new NoSuchElementException("Result is empty");
+
+        return value;
+    }
+
+    public long recover(final @NonNull ToLongFunction<Throwable> handler) {
+        if (throwable != null)
+            return handler.applyAsLong(throwable);
+
+        if (this == EMPTY)
+            return handler.applyAsLong(new NoSuchElementException("Result is empty"));
+
+        return value;
+    }
+
+    public long orElse(final @NonNull LongSupplier supplier) {
+        return throwable == null && this != EMPTY ? value : supplier.getAsLong();
+    }
+
+    public long orElse(final long other) {
+        return throwable == null && this != EMPTY ? value : other;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public boolean hasThrewA(final Class<? extends Throwable> exception) {
+        if (!hasThrew()) return false;
+        return exception.isInstance(throwable);
+    }
+
+    public boolean hasThrew() {
+        return throwable != null;
+    }
+
+    public @NonNull String asString() {
+        if (this == EMPTY) return "Result{empty}";
+
+        if (throwable != null)
+            return "Result{throwable=" + throwable + "}";
+
+        return "Result{result=" + value + "}";
+    }
+
+    public @NonNull String toString() {
+        return asString();
+    }
+
+    public @NonNull OptionalLong asOptional() {
+        if (throwable != null || this == EMPTY) return OptionalLong.empty();
+        return OptionalLong.of(value);
+    }
+
+}
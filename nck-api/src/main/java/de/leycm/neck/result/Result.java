@@ -1,6 +1,5 @@
 package de.leycm.neck.result;
 
-import lombok.Getter;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
@@ -11,12 +10,26 @@ import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-@Getter
-public class Result<T> {
-    private static final Result<?> EMPTY = new Result<>(null, null);
-
-    private final Throwable throwable;
-    private final T result;
+/**
+ * The outcome of a fallible computation: a {@link Success} carrying a value,
+ * a {@link Failure} carrying a {@link Throwable}, or {@link Empty}.
+ * <p>
+ * The hierarchy is sealed, so a result can be inspected with an exhaustive pattern-matching
+ * {@code switch}:
+ * </p>
+ * <pre>{@code
+ * String text = switch (result) {
+ *     case Result.Success<String> success -> success.getResult();
+ *     case Result.Failure<String> failure -> failure.getThrowable().getMessage();
+ *     case Result.Empty<String> empty -> "";
+ * };
+ * }</pre>
+ *
+ * @param <T> the type of the result value
+ */
+public abstract sealed class Result<T>
+        permits Result.Success, Result.Failure, Result.Empty {
+    private static final Result<?> EMPTY = new Empty<>();
 
     public static <T> @NonNull Result<T> result(final @NonNull Supplier<T> supplier) {
         try {
@@ -36,117 +49,324 @@ public class Result<T> {
         }
     }
 
+    /**
+     * Returns a supplier that computes the result on its first call and returns the same
+     * {@link Success}, {@link Failure} or {@link Empty} afterwards. Failures are cached too.
+     *
+     * <p><b>Usage Example:</b></p>
+     * <pre>{@code
+     * Supplier<Result<Config>> config = Result.lazy(() -> loader.load(path));
+     * // nothing loaded yet
+     * Config loaded = config.get().orElse(Config.DEFAULT); // loads once
+     * }</pre>
+     *
+     * @param <T>      the type of the result value
+     * @param supplier the supplier computing the value
+     * @return a thread-safe, memoizing supplier of the result
+     */
+    public static <T> @NonNull Supplier<Result<T>> lazy(final @NonNull Supplier<T> supplier) {
+        return new LazyResult<>(supplier, true);
+    }
+
+    /**
+     * Returns a supplier that computes the result on its first call, like
+     * {@link #lazy(Supplier)}. Without failure caching, a failure is handed to the callers of
+     * the failing attempt and the next call computes again, until a successful or empty result
+     * is cached.
+     *
+     * @param <T>           the type of the result value
+     * @param supplier      the supplier computing the value
+     * @param cacheFailures {@code true} to cache failures, {@code false} to compute again
+     *                      on the next call after a failure
+     * @return a thread-safe, memoizing supplier of the result
+     */
+    public static <T> @NonNull Supplier<Result<T>> lazy(final @NonNull Supplier<T> supplier,
+                                                        final boolean cacheFailures) {
+        return new LazyResult<>(supplier, cacheFailures);
+    }
+
     @FunctionalInterface
     public interface OptionalSupplier<T>
             extends Supplier<Optional<T>> { }
 
     @Contract(value = "_ -> new", pure = true)
     public static <R> @NonNull Result<R> throwing(final Throwable throwable) {
-        return new Result<>(null, throwable);
+        // without a throwable this stays what it always was: neither failed nor the empty result
+        if (throwable == null) return new Success<>(null);
+
+        ResultFailureEvent.record(throwable);
+        return new Failure<>(throwable);
     }
 
     @Contract(value = "_ -> new", pure = true)
     public static <R> @NonNull Result<R> of(final @NotNull("Value cannot be null use Result#empty() instead") R value) {
-        return new Result<>(value, null);
+        return new Success<>(value);
     }
 
     @Contract(value = "_ -> new", pure = true)
     public static <R> @NonNull Result<R> ofNullable(final R value) {
-        return value == null ? empty() : new Result<>(value, null);
+        return value == null ? empty() : new Success<>(value);
     }
 
+    @SuppressWarnings("unchecked")
     @Contract(value = "-> new", pure = true)
     public static <R> @NonNull Result<R> empty() {
         return (Result<R>) EMPTY;
     }
 
-    private Result(final T result, final Throwable throwable) {
-        this.result = result;
-        this.throwable = throwable;
-    }
+    Result() { }
+
+    public abstract Throwable getThrowable();
+
+    public abstract T getResult();
 
     public T unwarp() throws UnwrapException {
         return unwarp("Unwrap a Result with an Exception");
     }
 
-    public T unwarp(final @NonNull String message) throws UnwrapException{
-        if (throwable != null)
-            throw new UnwrapException(message, throwable);
+    public abstract T unwarp(final @NonNull String message) throws UnwrapException;
 
-        return result;
-    }
+    public abstract @NonNull T expect(final @NonNull String message) throws NoSuchElementException;
 
-    public @NonNull T expect(final @NonNull String message)
-            throws NoSuchElementException {
+    public abstract @NonNull T get() throws NoSuchElementException;
 
-        if (throwable != null)
-            throw new NoSuchElementException(message + ": " + throwable.getMessage());
+    public abstract @NonNull T recover(Function<Throwable, T> handler);
 
-        if (result == null)
-            throw new NoSuchElementException(message + ": Result is empty");
-
-        return result;
+    public @NonNull T orElse(Supplier<T> supplier) {
+        return recover(ignored -> supplier.get());
     }
 
-    public @NonNull T get() throws NoSuchElementException {
-        if (throwable != null)
-            throw new NoSuchElementException("Result contains an exception: " + throwable.getMessage());
+    public @NonNull T orElse(T value) {
+        return recover(ignored -> value);
+    }
 
-        if (result == null)
-            throw new NoSuchElementException("Result is empty");
+    public abstract boolean isEmpty();
 
-        return result;
+    public boolean hasThrewA(Class<? extends  Throwable> exception) {
+        if (!hasThrew()) return false;
+        return exception.isInstance(getThrowable());
     }
 
-    public @NonNull T recover(Function<Throwable, T> handler) {
-        if (result == null)
-            return handler.apply(new NoSuchElementException("Result is empty"));
+    public abstract boolean hasThrew();
 
-        if (throwable != null)
-            return handler.apply(throwable);
+    public abstract @NonNull String asString();
 
-        return result;
+    public @NonNull String toString() {
+        return asString();
     }
 
-    public @NonNull T orElse(Supplier<T> supplier) {
-        return recover(ignored -> supplier.get());
-    }
+    // NOTE: May make this throw exception in future versions
+    @ApiStatus.Experimental
+    public abstract @NonNull Optional<T> asOptional();
+
+    /**
+     * A successful result holding a value.
+     *
+     * @param <T> the type of the result value
+     */
+    public static final class Success<T> extends Result<T> {
+        private final T result;
+
+        private Success(final T result) {
+            this.result = result;
+        }
 
-    public @NonNull T orElse(T value) {
-        return recover(ignored -> value);
-    }
+        @Override
+        public Throwable getThrowable() {
+            return null;
+        }
 
-    public boolean isEmpty() {
-        return this == EMPTY;
-    }
+        @Override
+        public T getResult() {
+            return result;
+        }
 
-    public boolean hasThrewA(Class<? extends  Throwable> exception) {
-        if (!hasThrew()) return false;
-        return exception.isInstance(throwable);
-    }
+        @Override
+        public T unwarp(final @NonNull String message) {
+            return result;
+        }
+
+        @Override
+        public @NonNull T expect(final @NonNull String message) throws NoSuchElementException {
+            if (result == null)
+                throw new NoSuchElementException(message + ": Result is empty");
 
-    public boolean hasThrew() {
-        return throwable != null;
+            return result;
+        }
+
+        @Override
+        public @NonNull T get() throws NoSuchElementException {
+            if (result == null)
+                throw new NoSuchElementException("Result is empty");
+
+            return result;
+        }
+
+        @Override
+        public @NonNull T recover(Function<Throwable, T> handler) {
+            if (result == null)
+                return handler.apply(new NoSuchElementException("Result is empty"));
+
+            return result;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public boolean hasThrewA(Class<? extends Throwable> exception) {
+            return false;
+        }
+
+        @Override
+        public boolean hasThrew() {
+            return false;
+        }
+
+        @Override
+        public @NonNull String asString() {
+            return "Result{result=" + result + "}";
+        }
+
+        @Override
+        public @NonNull Optional<T> asOptional() {
+            return Optional.ofNullable(result);
+        }
     }
 
-    public @NonNull String asString() {
-        if (this == EMPTY) return "Result{empty}";
+    /**
+     * A failed result holding the {@link Throwable} that was captured.
+     *
+     * @param <T> the type of the result value
+     */
+    public static final class Failure<T> extends Result<T> {
+        private final Throwable throwable;
+
+        private Failure(final Throwable throwable) {
+            this.throwable = throwable;
+        }
+
+        @Override
+        public Throwable getThrowable() {
+            return throwable;
+        }
+
+        @Override
+        public T getResult() {
+            return null;
+        }
 
-        if (throwable != null)
+        @Override
+        public T unwarp(final @NonNull String message) throws UnwrapException {
+            throw new UnwrapException(message, throwable);
+        }
+
+        @Override
+        public @NonNull T expect(final @NonNull String message) throws NoSuchElementException {
+            throw new NoSuchElementException(message + ": " + throwable.getMessage());
+        }
+
+        @Override
+        public @NonNull T get() throws NoSuchElementException {
+            throw new NoSuchElementException("Result contains an exception: " + throwable.getMessage());
+        }
+
+        @Override
+        public @NonNull T recover(Function<Throwable, T> handler) {
+            return handler.apply(throwable);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public boolean hasThrewA(Class<? extends Throwable> exception) {
+            return exception.isInstance(throwable);
+        }
+
+        @Override
+        public boolean hasThrew() {
+            return true;
+        }
+
+        @Override
+        public @NonNull String asString() {
             return "Result{throwable=" + throwable + "}";
+        }
 
-        return "Result{result=" + result + "}";
+        @Override
+        public @NonNull Optional<T> asOptional() {
+            return Optional.empty();
+        }
     }
 
-    public @NonNull String toString() {
-        return asString();
-    }
+    /**
+     * The empty result. There is a single instance, see {@link Result#empty()}.
+     *
+     * @param <T> the type of the result value
+     */
+    public static final class Empty<T> extends Result<T> {
 
-    // NOTE: May make this throw exception in future versions
-    @ApiStatus.Experimental
-    public @NonNull Optional<T> asOptional() {
-        if (throwable != null) return Optional.empty();
-        return Optional.ofNullable(result);
+        private Empty() { }
+
+        @Override
+        public Throwable getThrowable() {
+            return null;
+        }
+
+        @Override
+        public T getResult() {
+            return null;
+        }
+
+        @Override
+        public T unwarp(final @NonNull String message) {
+            return null;
+        }
+
+        @Override
+        public @NonNull T expect(final @NonNull String message) throws NoSuchElementException {
+            throw new NoSuchElementException(message + ": Result is empty");
+        }
+
+        @Override
+        public @NonNull T get() throws NoSuchElementException {
+            throw new NoSuchElementException("Result is empty");
+        }
+
+        @Override
+        public @NonNull T recover(Function<Throwable, T> handler) {
+            return handler.apply(new NoSuchElementException("Result is empty"));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public boolean hasThrewA(Class<? extends Throwable> exception) {
+            return false;
+        }
+
+        @Override
+        public boolean hasThrew() {
+            return false;
+        }
+
+        @Override
+        public @NonNull String asString() {
+            return "Result{empty}";
+        }
+
+        @Override
+        public @NonNull Optional<T> asOptional() {
+            return Optional.empty();
+        }
     }
 
 }
@@ -0,0 +1,54 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded when a {@link Throwable} is captured into a failed {@link Result}
+ * through {@link Result#throwing(Throwable)}, including the captures done by
+ * {@link Result#result(java.util.function.Supplier)}.
+ * <p>
+ * The event is disabled by default, enable {@code de.leycm.neck.ResultFailure}
+ * in the recording settings to collect it.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@Name("de.leycm.neck.ResultFailure")
+@Label("Result Failure")
+@Category({"neck", "Result"})
+@Description("A throwable captured into a failed Result")
+@Enabled(false)
+final class ResultFailureEvent extends Event {
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Message")
+    String message;
+
+    static void record(final Throwable throwable) {
+        ResultFailureEvent event = new ResultFailureEvent();
+        if (!event.shouldCommit()) return;
+
+        event.exceptionClass = throwable.getClass();
+        event.message = throwable.getMessage();
+        event.commit();
+    }
+
+}
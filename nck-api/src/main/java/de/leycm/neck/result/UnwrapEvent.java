@@ -0,0 +1,53 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded whenever an {@link UnwrapException} is created, which happens
+ * when a failed result is unwrapped.
+ * <p>
+ * The event is disabled by default, enable {@code de.leycm.neck.Unwrap}
+ * in the recording settings to collect it.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@Name("de.leycm.neck.Unwrap")
+@Label("Unwrap Exception")
+@Category({"neck", "Result"})
+@Description("An UnwrapException thrown for a failed Result")
+@Enabled(false)
+final class UnwrapEvent extends Event {
+
+    @Label("Message")
+    String message;
+
+    @Label("Cause Class")
+    Class<?> causeClass;
+
+    static void record(final String message, final Throwable cause) {
+        UnwrapEvent event = new UnwrapEvent();
+        if (!event.shouldCommit()) return;
+
+        event.message = message;
+        event.causeClass = cause == null ? null : cause.getClass();
+        event.commit();
+    }
+
+}
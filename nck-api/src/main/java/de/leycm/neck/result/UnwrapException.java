@@ -1,13 +1,19 @@
 package de.leycm.neck.result;
 
+import java.io.Serial;
+
 public class UnwrapException extends RuntimeException {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     public UnwrapException(String message, Throwable cause) {
         super(message, cause);
+        UnwrapEvent.record(message, cause);
     }
 
     public UnwrapException(Throwable cause) {
-        super("Unwrap a Result with an Exception", cause);
+        this("Unwrap a Result with an Exception", cause);
     }
 
 }
@@ -0,0 +1,339 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.concurrent;
+
+import de.leycm.neck.result.Result;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A structured scope that forks fallible subtasks on virtual threads and joins
+ * their {@link Result}s.
+ * <p>
+ * The scope follows the model of {@code StructuredTaskScope} without depending on
+ * preview APIs. Subtasks are forked with {@link #fork(Supplier)}, the owner waits
+ * with {@link #join()} and reads the aggregate through {@link #results()} or
+ * {@link #result()}. Depending on the {@link Policy}, the first failure or the first
+ * success shuts the scope down, which interrupts every subtask still running.
+ * {@link #close()} shuts the scope down and waits until all threads have ended,
+ * so no subtask outlives the scope.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * try (ResultScope<Object> scope = ResultScope.shutdownOnFailure()) {
+ *     ResultScope.Subtask<Object> profile = scope.fork(() -> profiles.load(id));
+ *     ResultScope.Subtask<Object> history = scope.fork(() -> orders.history(id));
+ *     Result<List<Object>> all = scope.join().results();
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Subtasks may complete concurrently. Forking, joining and
+ * closing are meant to be done by the thread that opened the scope.</p>
+ *
+ * @param <T> the type of the subtask values
+ * @author LeyCM
+ * @since 1.3.0
+ * @see Result
+ */
+public final class ResultScope<T> implements AutoCloseable {
+
+    /**
+     * The policies deciding when a {@link ResultScope} shuts down early.
+     */
+    public enum Policy {
+        /** Shut down when any subtask fails, the aggregate is all values or the first failure. */
+        SHUTDOWN_ON_FAILURE,
+        /** Shut down when any subtask succeeds, the aggregate is the first value. */
+        SHUTDOWN_ON_SUCCESS,
+        /** Never shut down early, wait for every subtask. */
+        AWAIT_ALL
+    }
+
+    @Getter private final Policy policy;
+    private final ExecutorService executor;
+    private final List<Subtask<T>> subtasks = new ArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int pending;
+    private boolean shutdown;
+    private boolean joined;
+    private boolean closed;
+
+    private Subtask<T> firstSuccess;
+    private Subtask<T> firstFailure;
+
+    private ResultScope(final Policy policy, final String name) {
+        this.policy = policy;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 0).factory());
+    }
+
+    /**
+     * Opens a scope that shuts down as soon as a subtask fails.
+     *
+     * @param <T> the type of the subtask values
+     * @return a new scope
+     */
+    public static <T> @NonNull ResultScope<T> shutdownOnFailure() {
+        return new ResultScope<>(Policy.SHUTDOWN_ON_FAILURE, "neck-scope-");
+    }
+
+    /**
+     * Opens a scope that shuts down as soon as a subtask succeeds.
+     *
+     * @param <T> the type of the subtask values
+     * @return a new scope
+     */
+    public static <T> @NonNull ResultScope<T> shutdownOnSuccess() {
+        return new ResultScope<>(Policy.SHUTDOWN_ON_SUCCESS, "neck-scope-");
+    }
+
+    /**
+     * Opens a scope with the given policy and thread name prefix.
+     *
+     * @param <T>    the type of the subtask values
+     * @param policy the shutdown policy
+     * @param name   the name prefix for the subtask threads
+     * @return a new scope
+     */
+    public static <T> @NonNull ResultScope<T> open(final @NonNull Policy policy, final @NonNull String name) {
+        return new ResultScope<>(policy, name);
+    }
+
+    /**
+     * Forks a subtask on a new virtual thread. Exceptions thrown by the supplier are
+     * captured as with {@link Result#result(Supplier)}. A subtask forked after the scope
+     * shut down is not started and completes as cancelled.
+     *
+     * @param supplier the subtask to run
+     * @return the handle of the subtask
+     * @throws IllegalStateException if the scope was already joined or closed
+     */
+    public @NonNull Subtask<T> fork(final @NonNull Supplier<T> supplier) {
+        Subtask<T> subtask = new Subtask<>();
+
+        lock.lock();
+        try {
+            if (joined || closed)
+                throw new IllegalStateException("Cannot fork after the scope was joined or closed");
+
+            subtasks.add(subtask);
+            if (shutdown) return subtask;
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            executor.execute(() -> complete(subtask, Result.result(supplier)));
+        } catch (RejectedExecutionException e) {
+            complete(subtask, null);
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until every subtask completed or the scope shut down.
+     *
+     * @return this scope
+     * @throws InterruptedException if the owner thread is interrupted while waiting
+     */
+    public @NonNull ResultScope<T> join() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending > 0 && !shutdown)
+                changed.await();
+            joined = true;
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every subtask completed, the scope shut down or the deadline passed.
+     * When the deadline passes the scope is shut down.
+     *
+     * @param deadline the latest instant to wait for
+     * @return this scope
+     * @throws InterruptedException if the owner thread is interrupted while waiting
+     * @throws TimeoutException     if the deadline passed before the scope finished
+     */
+    public @NonNull ResultScope<T> joinUntil(final @NonNull Instant deadline)
+            throws InterruptedException, TimeoutException {
+        lock.lock();
+        try {
+            long nanos = Math.max(0L, TimeUnit.MILLISECONDS.toNanos(deadline.toEpochMilli() - System.currentTimeMillis()));
+            while (pending > 0 && !shutdown) {
+                if (nanos <= 0L) {
+                    joined = true;
+                    shutdown();
+                    throw new TimeoutException("Scope did not finish before " + deadline);
+                }
+                nanos = changed.awaitNanos(nanos);
+            }
+            joined = true;
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the aggregate of a scope joined with {@link Policy#SHUTDOWN_ON_FAILURE}
+     * or {@link Policy#AWAIT_ALL}: the values of all successful subtasks in fork order,
+     * or the first failure. Empty subtasks contribute no value.
+     *
+     * @return the aggregated result
+     * @throws IllegalStateException if the scope was not joined
+     */
+    public @NonNull Result<List<T>> results() {
+        lock.lock();
+        try {
+            ensureJoined();
+            if (firstFailure != null) return Result.throwing(firstFailure.result().getThrowable());
+
+            List<T> values = new ArrayList<>(subtasks.size());
+            for (Subtask<T> subtask : subtasks) {
+                Result<T> result = subtask.result();
+                if (result.hasThrew()) return Result.throwing(result.getThrowable());
+                if (!result.isEmpty()) values.add(result.getResult());
+            }
+            return Result.of(Collections.unmodifiableList(values));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the aggregate of a scope joined with {@link Policy#SHUTDOWN_ON_SUCCESS}:
+     * the first successful value, otherwise the first failure, otherwise empty.
+     *
+     * @return the first successful result
+     * @throws IllegalStateException if the scope was not joined
+     */
+    public @NonNull Result<T> result() {
+        lock.lock();
+        try {
+            ensureJoined();
+            if (firstSuccess != null) return firstSuccess.result();
+            if (firstFailure != null) return firstFailure.result();
+            return Result.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts the scope down: no further subtasks are started and running subtasks
+     * are interrupted. Subtasks that did not complete are reported as cancelled.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (shutdown) return;
+            shutdown = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Shuts the scope down and waits until every subtask thread has terminated.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        shutdown();
+        executor.close();
+    }
+
+    private void complete(final Subtask<T> subtask, final Result<T> result) {
+        lock.lock();
+        try {
+            pending--;
+            if (shutdown || result == null) {
+                changed.signalAll();
+                return;
+            }
+
+            subtask.result = result;
+            if (result.hasThrew() && firstFailure == null) firstFailure = subtask;
+            if (!result.hasThrew() && !result.isEmpty() && firstSuccess == null) firstSuccess = subtask;
+
+            if ((policy == Policy.SHUTDOWN_ON_FAILURE && result.hasThrew())
+                    || (policy == Policy.SHUTDOWN_ON_SUCCESS && firstSuccess == subtask)) {
+                shutdown = true;
+                executor.shutdownNow();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureJoined() {
+        if (!joined) throw new IllegalStateException("The scope must be joined first");
+    }
+
+    /**
+     * The handle of a subtask forked in a {@link ResultScope}.
+     *
+     * @param <T> the type of the subtask value
+     */
+    public static final class Subtask<T> {
+        private volatile Result<T> result;
+
+        private Subtask() { }
+
+        /**
+         * Checks whether the subtask completed before the scope shut down.
+         *
+         * @return {@code true} if a result is available
+         */
+        public boolean isDone() {
+            return result != null;
+        }
+
+        /**
+         * Returns the result of the subtask. A subtask that did not complete before
+         * the scope shut down reports a {@link CancellationException}.
+         *
+         * @return the result of the subtask
+         */
+        public @NonNull Result<T> result() {
+            Result<T> current = result;
+            return current != null ? current : Result.throwing(new CancellationException("Subtask did not complete"));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.metrics;
+
+import de.leycm.neck.result.Result;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A named {@link Result} factory that records outcome counts and latencies.
+ * <p>
+ * A meter is obtained once per call site through {@link ResultMetrics#meter(String)}
+ * and kept in a field. While metrics are disabled, {@link #result(Supplier)} costs a
+ * single branch on top of {@link Result#result(Supplier)}. While enabled, outcomes are
+ * counted in {@link LongAdder}s and latencies recorded in a {@link LatencyHistogram},
+ * neither of which allocates.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * private static final ResultMeter LOAD_USER = ResultMetrics.meter("user.load");
+ *
+ * Result<User> user = LOAD_USER.result(() -> repository.load(id));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResultMetrics
+ */
+public final class ResultMeter implements ResultMeterMXBean {
+
+    @Getter private final String name;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder empties = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    ResultMeter(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Computes a result like {@link Result#result(Supplier)} and records it if
+     * metrics are enabled.
+     *
+     * @param <T>      the type of the result value
+     * @param supplier the supplier to execute
+     * @return the result of the supplier
+     */
+    public <T> @NonNull Result<T> result(final @NonNull Supplier<T> supplier) {
+        if (!ResultMetrics.enabled) return Result.result(supplier);
+
+        long start = System.nanoTime();
+        Result<T> result = Result.result(supplier);
+        record(result, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Records an outcome computed elsewhere. Does nothing if metrics are disabled.
+     *
+     * @param result the result to count
+     * @param nanos  the time it took to compute the result
+     */
+    public void record(final @NonNull Result<?> result, final long nanos) {
+        if (!ResultMetrics.enabled) return;
+
+        if (result.hasThrew()) failures.increment();
+        else if (result.isEmpty()) empties.increment();
+        else successes.increment();
+
+        latency.record(nanos);
+    }
+
+    /**
+     * Returns the latency histogram of this meter.
+     *
+     * @return the live histogram
+     */
+    public @NonNull LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Takes a snapshot of the current numbers.
+     *
+     * @return the snapshot
+     */
+    public @NonNull ResultMeterSnapshot snapshot() {
+        return new ResultMeterSnapshot(name, successes.sum(), empties.sum(), failures.sum(),
+                latency.valueAtPercentile(50.0), latency.valueAtPercentile(99.0), latency.max());
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getEmptyCount() {
+        return empties.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latency.valueAtPercentile(50.0);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latency.valueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latency.max();
+    }
+
+    @Override
+    public void reset() {
+        successes.reset();
+        empties.reset();
+        failures.reset();
+        latency.reset();
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.metrics;
+
+/**
+ * JMX management interface of a {@link ResultMeter}. Meters are registered as
+ * {@code de.leycm.neck:type=ResultMeter,name=<name>} once
+ * {@link ResultMetrics#registerMBeans()} was called.
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+public interface ResultMeterMXBean {
+
+    String getName();
+
+    long getSuccessCount();
+
+    long getEmptyCount();
+
+    long getFailureCount();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyMaxNanos();
+
+    void reset();
+
+}
@@ -0,0 +1,46 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.metrics;
+
+import lombok.NonNull;
+
+/**
+ * An immutable point-in-time view of a {@link ResultMeter}, handed to
+ * {@link ResultMetricsExporter exporters}.
+ *
+ * @param name      the name of the meter
+ * @param successes the number of successful results
+ * @param empties   the number of empty results
+ * @param failures  the number of failed results
+ * @param p50Nanos  the median latency in nanoseconds
+ * @param p99Nanos  the 99th percentile latency in nanoseconds
+ * @param maxNanos  the maximum latency in nanoseconds
+ * @author LeyCM
+ * @since 1.3.0
+ */
+public record ResultMeterSnapshot(@NonNull String name,
+                                  long successes,
+                                  long empties,
+                                  long failures,
+                                  long p50Nanos,
+                                  long p99Nanos,
+                                  long maxNanos) {
+
+    /**
+     * Returns the total number of recorded results.
+     *
+     * @return the sum of successes, empties and failures
+     */
+    public long total() {
+        return successes + empties + failures;
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.metrics;
+
+import lombok.NonNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Entry point of the opt-in {@link de.leycm.neck.result.Result} metrics.
+ * <p>
+ * Metrics are disabled by default. {@link #enable()} switches recording on for every
+ * {@link ResultMeter}, {@link #registerMBeans()} exposes the meters through JMX and
+ * {@link #export()} pushes snapshots to the registered {@link ResultMetricsExporter}s.
+ * </p>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResultMeter
+ */
+public final class ResultMetrics {
+
+    /**
+     * The global switch checked by every meter on its hot path.
+     */
+    static volatile boolean enabled;
+
+    private static final Map<String, ResultMeter> METERS = new ConcurrentHashMap<>();
+    private static final List<ResultMetricsExporter> EXPORTERS = new CopyOnWriteArrayList<>();
+    private static volatile boolean jmx;
+    private static volatile boolean servicesLoaded;
+
+    private ResultMetrics() { }
+
+    /**
+     * Returns the meter with the given name, creating it on first use.
+     *
+     * @param name the name of the call site
+     * @return the meter for the name
+     */
+    public static @NonNull ResultMeter meter(final @NonNull String name) {
+        return METERS.computeIfAbsent(name, key -> {
+            ResultMeter meter = new ResultMeter(key);
+            if (jmx) registerMBean(meter);
+            return meter;
+        });
+    }
+
+    /**
+     * Returns all meters created so far.
+     *
+     * @return an unmodifiable view of the meters
+     */
+    public static @NonNull Collection<ResultMeter> meters() {
+        return Collections.unmodifiableCollection(METERS.values());
+    }
+
+    /**
+     * Switches recording on for all meters.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Switches recording off for all meters. Recorded numbers are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Checks whether meters currently record.
+     *
+     * @return {@code true} if metrics are enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers every current and future meter with the platform {@link MBeanServer}.
+     */
+    public static synchronized void registerMBeans() {
+        if (jmx) return;
+        jmx = true;
+        METERS.values().forEach(ResultMetrics::registerMBean);
+    }
+
+    /**
+     * Adds an exporter invoked by {@link #export()}.
+     *
+     * @param exporter the exporter to add
+     */
+    public static void addExporter(final @NonNull ResultMetricsExporter exporter) {
+        EXPORTERS.add(exporter);
+    }
+
+    /**
+     * Removes a previously added exporter.
+     *
+     * @param exporter the exporter to remove
+     */
+    public static void removeExporter(final @NonNull ResultMetricsExporter exporter) {
+        EXPORTERS.remove(exporter);
+    }
+
+    /**
+     * Takes a snapshot of every meter and hands it to all exporters. Exporters found
+     * through {@link ServiceLoader} are added on the first call.
+     *
+     * @return the exported snapshots
+     */
+    public static @NonNull List<ResultMeterSnapshot> export() {
+        loadServices();
+
+        List<ResultMeterSnapshot> snapshots = new ArrayList<>(METERS.size());
+        for (ResultMeter meter : METERS.values())
+            snapshots.add(meter.snapshot());
+        snapshots = Collections.unmodifiableList(snapshots);
+
+        for (ResultMetricsExporter exporter : EXPORTERS)
+            exporter.export(snapshots);
+
+        return snapshots;
+    }
+
+    private static synchronized void loadServices() {
+        if (servicesLoaded) return;
+        servicesLoaded = true;
+        ServiceLoader.load(ResultMetricsExporter.class).forEach(EXPORTERS::add);
+    }
+
+    private static void registerMBean(final ResultMeter meter) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("de.leycm.neck:type=ResultMeter,name=" + ObjectName.quote(meter.getName()));
+            if (!server.isRegistered(name)) server.registerMBean(meter, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register MBean for meter " + meter.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.metrics;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Service provider interface for publishing {@link ResultMeter} numbers to a
+ * monitoring system.
+ * <p>
+ * Implementations are registered through {@link ResultMetrics#addExporter(ResultMetricsExporter)}
+ * or discovered with {@link java.util.ServiceLoader} from
+ * {@code META-INF/services/de.leycm.neck.result.metrics.ResultMetricsExporter}.
+ * They are invoked by {@link ResultMetrics#export()}, the caller decides on the schedule.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResultMetrics
+ */
+@FunctionalInterface
+public interface ResultMetricsExporter {
+
+    /**
+     * Publishes the given snapshots.
+     *
+     * @param snapshots one snapshot per registered meter
+     */
+    void export(final @NonNull List<ResultMeterSnapshot> snapshots);
+
+}
@@ -0,0 +1,123 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.resilience;
+
+import de.leycm.neck.result.Result;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A bulkhead that limits the number of concurrent executions of a call.
+ * <p>
+ * Calls exceeding the limit wait for at most {@code maxWait} and are then rejected
+ * with a {@link CallNotPermittedException}. With a zero wait, the default, rejection
+ * is immediate and never blocks the calling thread.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * Bulkhead bulkhead = Bulkhead.of(32);
+ * Result<Report> report = bulkhead.execute(() -> reports.render(query));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResiliencePolicy
+ */
+public final class Bulkhead implements ResiliencePolicy {
+
+    @Getter private final int maxConcurrentCalls;
+    @Getter private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private Bulkhead(final int maxConcurrentCalls, final long maxWaitNanos) {
+        if (maxConcurrentCalls < 1)
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+        if (maxWaitNanos < 0)
+            throw new IllegalArgumentException("maxWait must not be negative");
+
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWaitNanos;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Creates a bulkhead that rejects calls immediately once the limit is reached.
+     *
+     * @param maxConcurrentCalls the maximum number of concurrent executions
+     * @return a new bulkhead
+     * @throws IllegalArgumentException if {@code maxConcurrentCalls} is less than 1
+     */
+    public static @NonNull Bulkhead of(final int maxConcurrentCalls) {
+        return new Bulkhead(maxConcurrentCalls, 0L);
+    }
+
+    /**
+     * Creates a bulkhead that lets calls wait up to {@code maxWait} for a free slot.
+     *
+     * @param maxConcurrentCalls the maximum number of concurrent executions
+     * @param maxWait            the maximum time to wait for a free slot
+     * @return a new bulkhead
+     * @throws IllegalArgumentException if the arguments are out of range
+     */
+    public static @NonNull Bulkhead of(final int maxConcurrentCalls, final @NonNull Duration maxWait) {
+        return new Bulkhead(maxConcurrentCalls, maxWait.toNanos());
+    }
+
+    /**
+     * Returns the number of currently free execution slots.
+     *
+     * @return the number of available slots
+     */
+    public int getAvailableCalls() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Executes the call if a slot is available within the configured wait.
+     *
+     * @param <T>  the type of the result value
+     * @param call the call to execute
+     * @return the result of the call, or a throwing result with a
+     *         {@link CallNotPermittedException} if the bulkhead is full
+     */
+    @Override
+    public <T> @NonNull Result<T> apply(final @NonNull Supplier<Result<T>> call) {
+        if (!tryAcquire())
+            return Result.throwing(new CallNotPermittedException("Bulkhead is full"));
+
+        try {
+            return call.get();
+        } catch (Throwable throwable) {
+            return Result.throwing(throwable);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean tryAcquire() {
+        if (maxWaitNanos == 0L) return permits.tryAcquire();
+
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
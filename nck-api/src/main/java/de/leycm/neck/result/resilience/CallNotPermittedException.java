@@ -0,0 +1,35 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.resilience;
+
+import java.io.Serial;
+
+/**
+ * Signals that a {@link ResiliencePolicy} rejected a call without executing it,
+ * for example because a {@link CircuitBreaker} is open or a {@link Bulkhead} is full.
+ * <p>
+ * The exception is created without a stack trace since it is raised on the
+ * rejection path where throughput matters most.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message, null, false, false);
+    }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.resilience;
+
+import de.leycm.neck.result.Result;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A lock-free circuit breaker that stops calling a failing dependency.
+ * <p>
+ * The breaker starts {@link State#CLOSED closed}. After {@code failureThreshold}
+ * consecutive failures it {@link State#OPEN opens} and rejects every call with a
+ * {@link CallNotPermittedException} for {@code openDuration}. It then becomes
+ * {@link State#HALF_OPEN half-open} and lets up to {@code halfOpenCalls} trial calls
+ * through: one failure opens it again, a success closes it.
+ * </p>
+ * <p>
+ * A result counts as a failure if it {@link Result#hasThrewA(Class) threw} one of the
+ * recorded exception types. Empty results and all other exceptions count as successes.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * CircuitBreaker breaker = CircuitBreaker.of(5, Duration.ofSeconds(30))
+ *         .recordOn(IOException.class, TimeoutException.class);
+ * Result<Quote> quote = breaker.execute(() -> pricing.quote(order));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is thread-safe. The state is an immutable snapshot
+ * swapped by compare-and-set, calls on the closed path without failures do not allocate.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResiliencePolicy
+ */
+public final class CircuitBreaker implements ResiliencePolicy {
+
+    /**
+     * The states of a {@link CircuitBreaker}.
+     */
+    public enum State {
+        /** Calls are permitted and failures are counted. */
+        CLOSED,
+        /** Calls are rejected until the open duration elapsed. */
+        OPEN,
+        /** A limited number of trial calls are permitted. */
+        HALF_OPEN
+    }
+
+    private record Snapshot(State state, int failures, long openedAt, int trials) {}
+
+    private static final Snapshot CLOSED = new Snapshot(State.CLOSED, 0, 0L, 0);
+
+    @Getter private final int failureThreshold;
+    @Getter private final long openDurationNanos;
+    @Getter private final int halfOpenCalls;
+    private final List<Class<? extends Throwable>> recordOn;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(CLOSED);
+
+    private CircuitBreaker(final int failureThreshold,
+                           final long openDurationNanos,
+                           final int halfOpenCalls,
+                           final List<Class<? extends Throwable>> recordOn) {
+        if (failureThreshold < 1)
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        if (openDurationNanos < 0)
+            throw new IllegalArgumentException("openDuration must not be negative");
+        if (halfOpenCalls < 1)
+            throw new IllegalArgumentException("halfOpenCalls must be at least 1");
+
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.recordOn = recordOn;
+    }
+
+    /**
+     * Creates a closed circuit breaker that records every exception as a failure
+     * and permits a single trial call when half-open.
+     *
+     * @param failureThreshold the number of consecutive failures that open the circuit
+     * @param openDuration     the time the circuit stays open before a trial call
+     * @return a new circuit breaker
+     * @throws IllegalArgumentException if the arguments are out of range
+     */
+    public static @NonNull CircuitBreaker of(final int failureThreshold,
+                                             final @NonNull Duration openDuration) {
+        return new CircuitBreaker(failureThreshold, openDuration.toNanos(), 1, List.of(Throwable.class));
+    }
+
+    /**
+     * Returns a new closed circuit breaker with this configuration and the given
+     * number of trial calls while half-open.
+     *
+     * @param halfOpenCalls the number of permitted trial calls, at least 1
+     * @return the new circuit breaker
+     */
+    public @NonNull CircuitBreaker withHalfOpenCalls(final int halfOpenCalls) {
+        return new CircuitBreaker(failureThreshold, openDurationNanos, halfOpenCalls, recordOn);
+    }
+
+    /**
+     * Returns a new closed circuit breaker with this configuration that only records
+     * results which threw one of the given exception types as failures.
+     *
+     * @param exceptions the exception types counted as failures
+     * @return the new circuit breaker
+     */
+    @SafeVarargs
+    public final @NonNull CircuitBreaker recordOn(final @NonNull Class<? extends Throwable>... exceptions) {
+        return new CircuitBreaker(failureThreshold, openDurationNanos, halfOpenCalls, List.of(exceptions));
+    }
+
+    /**
+     * Returns the current state of this circuit breaker. An open circuit whose
+     * open duration elapsed is reported as open until the next call attempts it.
+     *
+     * @return the current state
+     */
+    public @NonNull State getState() {
+        return snapshot.get().state();
+    }
+
+    /**
+     * Checks whether the given result is recorded as a failure by this breaker.
+     *
+     * @param result the result to classify
+     * @return {@code true} if the result threw one of the recorded exception types
+     */
+    public boolean isFailure(final @NonNull Result<?> result) {
+        if (!result.hasThrew() || result.hasThrewA(CallNotPermittedException.class))
+            return false;
+
+        for (Class<? extends Throwable> exception : recordOn)
+            if (result.hasThrewA(exception)) return true;
+
+        return false;
+    }
+
+    /**
+     * Executes the call if the circuit permits it and records its outcome.
+     *
+     * @param <T>  the type of the result value
+     * @param call the call to execute
+     * @return the result of the call, or a throwing result with a
+     *         {@link CallNotPermittedException} if the circuit is open
+     */
+    @Override
+    public <T> @NonNull Result<T> apply(final @NonNull Supplier<Result<T>> call) {
+        if (!tryAcquirePermission())
+            return Result.throwing(new CallNotPermittedException("Circuit breaker is open"));
+
+        Result<T> result;
+        try {
+            result = call.get();
+        } catch (Throwable throwable) {
+            result = Result.throwing(throwable);
+        }
+
+        onResult(result);
+        return result;
+    }
+
+    /**
+     * Tries to acquire a permission to execute a call. Callers that acquired a
+     * permission must report the outcome through {@link #onResult(Result)}.
+     *
+     * @return {@code true} if the call is permitted
+     */
+    public boolean tryAcquirePermission() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            switch (current.state()) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt() < openDurationNanos)
+                        return false;
+                    if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, 0, current.openedAt(), 1)))
+                        return true;
+                    break;
+                case HALF_OPEN:
+                    if (current.trials() >= halfOpenCalls)
+                        return false;
+                    if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, 0, current.openedAt(), current.trials() + 1)))
+                        return true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param result the result of the call
+     */
+    public void onResult(final @NonNull Result<?> result) {
+        boolean failure = isFailure(result);
+
+        while (true) {
+            Snapshot current = snapshot.get();
+            Snapshot next;
+
+            if (current.state() == State.OPEN) {
+                return;
+            } else if (!failure) {
+                if (current == CLOSED) return;
+                next = CLOSED;
+            } else if (current.state() == State.HALF_OPEN || current.failures() + 1 >= failureThreshold) {
+                next = new Snapshot(State.OPEN, 0, System.nanoTime(), 0);
+            } else {
+                next = new Snapshot(State.CLOSED, current.failures() + 1, 0L, 0);
+            }
+
+            if (snapshot.compareAndSet(current, next)) return;
+        }
+    }
+
+    /**
+     * Forces this circuit breaker back into the closed state.
+     */
+    public void reset() {
+        snapshot.set(CLOSED);
+    }
+}
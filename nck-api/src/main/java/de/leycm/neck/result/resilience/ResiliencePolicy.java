@@ -0,0 +1,78 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.resilience;
+
+import de.leycm.neck.result.Result;
+import lombok.NonNull;
+
+import java.util.function.Supplier;
+
+/**
+ * A policy that guards the execution of a fallible call and reports the outcome
+ * as a {@link Result}.
+ * <p>
+ * Policies never throw for a failing call. Every failure, including a rejection by
+ * the policy itself, is returned as a {@link Result#throwing(Throwable) throwing}
+ * result so callers can classify it with {@link Result#hasThrewA(Class)}.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * ResiliencePolicy policy = retry.wrap(breaker).wrap(bulkhead);
+ * Result<User> user = policy.execute(() -> repository.load(id));
+ * }</pre>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see RetryPolicy
+ * @see CircuitBreaker
+ * @see Bulkhead
+ */
+public interface ResiliencePolicy {
+
+    /**
+     * Executes the given call under this policy.
+     *
+     * @param <T>  the type of the result value
+     * @param call the call to guard, producing a {@link Result}
+     * @return the result of the call or a throwing result if the policy rejected it
+     */
+    <T> @NonNull Result<T> apply(final @NonNull Supplier<Result<T>> call);
+
+    /**
+     * Executes the given supplier under this policy. Exceptions thrown by the
+     * supplier are captured as with {@link Result#result(Supplier)}.
+     *
+     * @param <T>      the type of the result value
+     * @param supplier the supplier to guard
+     * @return the result of the supplier or a throwing result if the policy rejected it
+     */
+    default <T> @NonNull Result<T> execute(final @NonNull Supplier<T> supplier) {
+        return apply(() -> Result.result(supplier));
+    }
+
+    /**
+     * Returns a policy that applies this policy around the given inner policy.
+     * The inner policy is evaluated for every attempt made by this policy.
+     *
+     * @param inner the policy to run inside this one
+     * @return the composed policy
+     */
+    default @NonNull ResiliencePolicy wrap(final @NonNull ResiliencePolicy inner) {
+        final ResiliencePolicy outer = this;
+        return new ResiliencePolicy() {
+            @Override
+            public <T> @NonNull Result<T> apply(final @NonNull Supplier<Result<T>> call) {
+                return outer.apply(() -> inner.apply(call));
+            }
+        };
+    }
+}
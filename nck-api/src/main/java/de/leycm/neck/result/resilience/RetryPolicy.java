@@ -0,0 +1,311 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.result.resilience;
+
+import de.leycm.neck.result.Result;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A retry policy with exponential backoff and jitter.
+ * <p>
+ * A call is retried while its {@link Result} {@link Result#hasThrewA(Class) threw}
+ * one of the retryable exception types and the attempt limit is not exhausted.
+ * Rejections by other policies ({@link CallNotPermittedException}) are never retried,
+ * so a retry placed around an open {@link CircuitBreaker} fails fast.
+ * </p>
+ * <p>
+ * The delay before attempt {@code n + 1} is {@code baseDelay * multiplier^(n - 1)},
+ * capped at {@code maxDelay}, of which a random fraction of up to {@code jitter}
+ * is subtracted to spread concurrent retries apart.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * RetryPolicy retry = RetryPolicy.exponential(5, Duration.ofMillis(50), Duration.ofSeconds(2))
+ *         .retryOn(IOException.class);
+ * CompletableFuture<Result<Response>> response = retry.executeAsync(() -> client.send(request));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread-safe.</p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ * @see ResiliencePolicy
+ */
+@Getter
+public final class RetryPolicy implements ResiliencePolicy {
+
+    /**
+     * Executor used by {@link #executeAsync(Supplier)}. Every attempt runs on its own
+     * virtual thread, delays are scheduled through {@link CompletableFuture#delayedExecutor}
+     * so no thread is held while waiting.
+     */
+    private static final Executor VIRTUAL_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("neck-retry-", 0).factory());
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final double jitter;
+    private final List<Class<? extends Throwable>> retryOn;
+
+    private RetryPolicy(final int maxAttempts,
+                        final long baseDelayNanos,
+                        final long maxDelayNanos,
+                        final double multiplier,
+                        final double jitter,
+                        final List<Class<? extends Throwable>> retryOn) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        if (baseDelayNanos < 0 || maxDelayNanos < baseDelayNanos)
+            throw new IllegalArgumentException("Delays must satisfy 0 <= baseDelay <= maxDelay");
+        if (multiplier < 1.0)
+            throw new IllegalArgumentException("multiplier must be at least 1.0");
+        if (jitter < 0.0 || jitter > 1.0)
+            throw new IllegalArgumentException("jitter must be within [0, 1]");
+
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * Creates a policy with exponential backoff (multiplier {@code 2.0}) and full jitter
+     * that retries on any exception.
+     *
+     * @param maxAttempts the total number of attempts including the first one
+     * @param baseDelay   the delay before the first retry
+     * @param maxDelay    the upper bound for any single delay
+     * @return a new retry policy
+     * @throws IllegalArgumentException if the arguments are out of range
+     */
+    public static @NonNull RetryPolicy exponential(final int maxAttempts,
+                                                   final @NonNull Duration baseDelay,
+                                                   final @NonNull Duration maxDelay) {
+        return new RetryPolicy(maxAttempts, baseDelay.toNanos(), maxDelay.toNanos(),
+                2.0, 1.0, List.of(Throwable.class));
+    }
+
+    /**
+     * Creates a policy that retries immediately without any delay.
+     *
+     * @param maxAttempts the total number of attempts including the first one
+     * @return a new retry policy
+     * @throws IllegalArgumentException if {@code maxAttempts} is less than 1
+     */
+    public static @NonNull RetryPolicy immediate(final int maxAttempts) {
+        return new RetryPolicy(maxAttempts, 0L, 0L, 1.0, 0.0, List.of(Throwable.class));
+    }
+
+    /**
+     * Returns a copy of this policy with the given backoff multiplier.
+     *
+     * @param multiplier the factor applied to the delay after each attempt, at least {@code 1.0}
+     * @return the new policy
+     */
+    public @NonNull RetryPolicy withMultiplier(final double multiplier) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, multiplier, jitter, retryOn);
+    }
+
+    /**
+     * Returns a copy of this policy with the given jitter fraction.
+     * A jitter of {@code 0.0} disables randomization, {@code 1.0} picks a delay
+     * uniformly between zero and the computed backoff.
+     *
+     * @param jitter the jitter fraction within {@code [0, 1]}
+     * @return the new policy
+     */
+    public @NonNull RetryPolicy withJitter(final double jitter) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, multiplier, jitter, retryOn);
+    }
+
+    /**
+     * Returns a copy of this policy that only retries results which threw
+     * one of the given exception types.
+     *
+     * @param exceptions the retryable exception types
+     * @return the new policy
+     */
+    @SafeVarargs
+    public final @NonNull RetryPolicy retryOn(final @NonNull Class<? extends Throwable>... exceptions) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, multiplier, jitter, List.of(exceptions));
+    }
+
+    /**
+     * Checks whether the given result should be retried according to its failure.
+     *
+     * @param result the result of the last attempt
+     * @return {@code true} if the result threw a retryable exception
+     */
+    public boolean isRetryable(final @NonNull Result<?> result) {
+        if (!result.hasThrew() || result.hasThrewA(CallNotPermittedException.class))
+            return false;
+
+        for (Class<? extends Throwable> exception : retryOn)
+            if (result.hasThrewA(exception)) return true;
+
+        return false;
+    }
+
+    /**
+     * Computes the jittered delay to wait after the given failed attempt.
+     *
+     * @param attempt the number of the failed attempt, starting at 1
+     * @return the delay in nanoseconds
+     */
+    public long delayNanos(final int attempt) {
+        if (maxDelayNanos == 0L) return 0L;
+
+        double backoff = baseDelayNanos * Math.pow(multiplier, attempt - 1);
+        long delay = backoff >= maxDelayNanos ? maxDelayNanos : (long) backoff;
+
+        if (jitter == 0.0 || delay == 0L) return delay;
+        return delay - (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * Executes the call, retrying failures on the calling thread.
+     * <p>
+     * Backoff delays park the calling thread. On a virtual thread this releases the
+     * carrier thread, on a platform thread prefer {@link #applyAsync(Supplier)}.
+     * Every delay is waited in full, early wake-ups park again until its deadline. If the
+     * thread is interrupted before or while waiting, no further attempt is made: the last
+     * result is returned and the interrupt status stays set for the caller.
+     * </p>
+     *
+     * @param <T>  the type of the result value
+     * @param call the call to execute
+     * @return the first non-retryable result or the result of the last attempt
+     */
+    @Override
+    public <T> @NonNull Result<T> apply(final @NonNull Supplier<Result<T>> call) {
+        Result<T> result = invoke(call);
+
+        for (int attempt = 1; attempt < maxAttempts && isRetryable(result); attempt++) {
+            long delay = delayNanos(attempt);
+            if (delay > 0L && !park(delay)) return result;
+            result = invoke(call);
+        }
+
+        return result;
+    }
+
+    /**
+     * Executes the call asynchronously on virtual threads. Delays between attempts are
+     * scheduled, no thread is blocked while waiting.
+     *
+     * @param <T>  the type of the result value
+     * @param call the call to execute
+     * @return a future completed with the first non-retryable result or the result of the last attempt
+     */
+    public <T> @NonNull CompletableFuture<Result<T>> applyAsync(final @NonNull Supplier<Result<T>> call) {
+        return applyAsync(call, VIRTUAL_EXECUTOR);
+    }
+
+    /**
+     * Executes the call asynchronously on the given executor. Delays between attempts are
+     * scheduled, no thread is blocked while waiting.
+     *
+     * @param <T>      the type of the result value
+     * @param call     the call to execute
+     * @param executor the executor running the attempts
+     * @return a future completed with the first non-retryable result or the result of the last attempt
+     */
+    public <T> @NonNull CompletableFuture<Result<T>> applyAsync(final @NonNull Supplier<Result<T>> call,
+                                                                final @NonNull Executor executor) {
+        CompletableFuture<Result<T>> future = new CompletableFuture<>();
+        attempt(call, executor, future, 1, executor);
+        return future;
+    }
+
+    /**
+     * Executes the supplier asynchronously on virtual threads.
+     * Exceptions thrown by the supplier are captured as with {@link Result#result(Supplier)}.
+     *
+     * @param <T>      the type of the result value
+     * @param supplier the supplier to execute
+     * @return a future completed with the first non-retryable result or the result of the last attempt
+     * @see #applyAsync(Supplier)
+     */
+    public <T> @NonNull CompletableFuture<Result<T>> executeAsync(final @NonNull Supplier<T> supplier) {
+        return applyAsync(() -> Result.result(supplier));
+    }
+
+    private <T> void attempt(final Supplier<Result<T>> call,
+                             final Executor executor,
+                             final CompletableFuture<Result<T>> future,
+                             final int attempt,
+                             final Executor next) {
+        execute(next, future, () -> {
+            if (future.isDone()) return;
+
+            Result<T> result = invoke(call);
+            if (attempt >= maxAttempts || !isRetryable(result)) {
+                future.complete(result);
+                return;
+            }
+
+            long delay = delayNanos(attempt);
+            Executor delayed = delay > 0L
+                    ? CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS,
+                            task -> execute(executor, future, task))
+                    : executor;
+            attempt(call, executor, future, attempt + 1, delayed);
+        });
+    }
+
+    private static <T> void execute(final Executor executor,
+                                    final CompletableFuture<Result<T>> future,
+                                    final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException exception) {
+            future.complete(Result.throwing(exception));
+        }
+    }
+
+    /**
+     * Parks the calling thread for the given delay, parking again after spurious wake-ups.
+     * Returns {@code false} if the thread is interrupted, without clearing its interrupt status.
+     */
+    private boolean park(final long delay) {
+        long deadline = System.nanoTime() + delay;
+        for (long remaining = delay; remaining > 0L; remaining = deadline - System.nanoTime()) {
+            if (Thread.currentThread().isInterrupted()) return false;
+            LockSupport.parkNanos(this, remaining);
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    private static <T> Result<T> invoke(final Supplier<Result<T>> call) {
+        try {
+            return call.get();
+        } catch (Throwable throwable) {
+            return Result.throwing(throwable);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * ──────────────────────────────────────────────
+ *  JMH Benchmarks (not published)
+ * ──────────────────────────────────────────────
+ *
+ *  Run with `gradle :bench:jmh`. The GC profiler is always enabled so
+ *  allocation rates (gc.alloc.rate.norm) are reported next to the timings.
+ *  Results are written to build/results/jmh/results.json.
+ */
+
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":api"))
+    jmhCompileOnly(libs.jetanno)
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+tasks.withType<PublishToMavenRepository>().configureEach {
+    enabled = false
+}
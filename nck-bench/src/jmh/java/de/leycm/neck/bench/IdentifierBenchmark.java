@@ -0,0 +1,127 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.bench;
+
+import de.leycm.neck.identifier.Identifier;
+import de.leycm.neck.identifier.type.DoubleIdentifier;
+import de.leycm.neck.identifier.type.IntIdentifier;
+import de.leycm.neck.identifier.type.LongIdentifier;
+import de.leycm.neck.identifier.type.ShortIdentifier;
+import de.leycm.neck.identifier.type.StringIdentifier;
+import de.leycm.neck.identifier.type.UUIDIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for construction, comparison, hashing and map lookups of every
+ * identifier type in {@code de.leycm.neck.identifier.type}.
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdentifierBenchmark {
+
+    private static final int SIZE = 4096;
+
+    @Param({"short", "int", "long", "double", "string", "uuid"})
+    public String type;
+
+    private Object[] originals;
+    private Identifier<?>[] identifiers;
+    private Identifier<?>[] copies;
+    private Map<Identifier<?>, Integer> map;
+    private int index;
+
+    @Setup
+    public void setup() {
+        originals = new Object[SIZE];
+        identifiers = new Identifier<?>[SIZE];
+        copies = new Identifier<?>[SIZE];
+        map = new HashMap<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            originals[i] = original(i);
+            identifiers[i] = create(originals[i]);
+            copies[i] = create(originals[i]);
+            map.put(identifiers[i], i);
+        }
+    }
+
+    private Object original(final int i) {
+        return switch (type) {
+            case "short" -> (short) i;
+            case "int" -> i * 31;
+            case "long" -> i * 0x9E3779B97F4A7C15L;
+            case "double" -> i * 0.5;
+            case "string" -> "tenant/" + (i % 16) + "/user-" + i;
+            case "uuid" -> new UUID(i * 0x9E3779B97F4A7C15L, ~i);
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+    }
+
+    private Identifier<?> create(final Object original) {
+        return switch (type) {
+            case "short" -> new ShortIdentifier((Short) original);
+            case "int" -> new IntIdentifier((Integer) original);
+            case "long" -> new LongIdentifier((Long) original);
+            case "double" -> new DoubleIdentifier((Double) original);
+            case "string" -> new StringIdentifier((String) original);
+            case "uuid" -> new UUIDIdentifier((UUID) original);
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+    }
+
+    private int next() {
+        return index = (index + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public Identifier<?> construct() {
+        return create(originals[next()]);
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compareTo() {
+        int i = next();
+        return ((Identifier) identifiers[i]).compareTo((Identifier) identifiers[(i + 1) & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return identifiers[next()].hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        int i = next();
+        return identifiers[i].equals(copies[i]);
+    }
+
+    @Benchmark
+    public Integer mapLookupHit() {
+        return map.get(copies[next()]);
+    }
+}
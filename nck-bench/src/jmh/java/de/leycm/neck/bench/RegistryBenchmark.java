@@ -0,0 +1,68 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.bench;
+
+import de.leycm.neck.instance.Initializable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Initializable#getInstance(Class)} with one, four and
+ * all available threads reading the registry concurrently.
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegistryBenchmark {
+
+    public static final class Service implements Initializable { }
+
+    @Setup
+    public void setup() {
+        if (!Initializable.hasInstance(Service.class))
+            Initializable.register(new Service(), Service.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Service getInstanceSingleThread() {
+        return Initializable.getInstance(Service.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Service getInstanceFourThreads() {
+        return Initializable.getInstance(Service.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Service getInstanceMaxThreads() {
+        return Initializable.getInstance(Service.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean hasInstanceMaxThreads() {
+        return Initializable.hasInstance(Service.class);
+    }
+}
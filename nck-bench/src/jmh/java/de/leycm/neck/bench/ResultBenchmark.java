@@ -0,0 +1,135 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.bench;
+
+import de.leycm.neck.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks for {@link Result} creation and access on the success, empty and failure paths.
+ * <p>
+ * The {@code create*} benchmarks report the footprint of each variant through the
+ * {@code gc.alloc.rate.norm} metric of the GC profiler. The {@code dispatch*} benchmarks
+ * iterate over a mix of variants to measure the cost of the type dispatch in the accessors.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResultBenchmark {
+
+    private static final RuntimeException FAILURE = new IllegalStateException("failure");
+
+    private final Supplier<String> successSupplier = () -> "value";
+    private final Supplier<String> emptySupplier = () -> null;
+    private final Supplier<String> failureSupplier = () -> { throw FAILURE; };
+
+    private Result<String> success;
+    private Result<String> empty;
+    private Result<String> failure;
+    private Result<String>[] mixed;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        success = Result.of("value");
+        empty = Result.empty();
+        failure = Result.throwing(FAILURE);
+
+        mixed = (Result<String>[]) new Result<?>[1024];
+        for (int i = 0; i < mixed.length; i++)
+            mixed[i] = switch (i % 3) {
+                case 0 -> success;
+                case 1 -> empty;
+                default -> failure;
+            };
+    }
+
+    @Benchmark
+    public Result<String> createSuccess() {
+        return Result.result(successSupplier);
+    }
+
+    @Benchmark
+    public Result<String> createEmpty() {
+        return Result.result(emptySupplier);
+    }
+
+    @Benchmark
+    public Result<String> createFailure() {
+        return Result.result(failureSupplier);
+    }
+
+    @Benchmark
+    public String unwarpSuccess() {
+        return success.unwarp();
+    }
+
+    @Benchmark
+    public String unwarpEmpty() {
+        return empty.unwarp();
+    }
+
+    @Benchmark
+    public Object unwarpFailure() {
+        try {
+            return failure.unwarp();
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String orElseSuccess() {
+        return success.orElse("fallback");
+    }
+
+    @Benchmark
+    public String orElseEmpty() {
+        return empty.orElse("fallback");
+    }
+
+    @Benchmark
+    public String orElseFailure() {
+        return failure.orElse("fallback");
+    }
+
+    @Benchmark
+    public void dispatchHasThrew(final Blackhole blackhole) {
+        for (Result<String> result : mixed)
+            blackhole.consume(result.hasThrew());
+    }
+
+    @Benchmark
+    public void dispatchIsEmpty(final Blackhole blackhole) {
+        for (Result<String> result : mixed)
+            blackhole.consume(result.isEmpty());
+    }
+
+    @Benchmark
+    public void dispatchOrElse(final Blackhole blackhole) {
+        for (Result<String> result : mixed)
+            blackhole.consume(result.orElse("fallback"));
+    }
+}
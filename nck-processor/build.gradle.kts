@@ -0,0 +1,12 @@
+/**
+ * ──────────────────────────────────────────────
+ *  Annotation Processor (compile-time Initializable index)
+ * ──────────────────────────────────────────────
+ *
+ *  Generates an InitializableIndex for every @AutoInitializable class.
+ *  Usage in a consuming module:
+ *      annotationProcessor(project(":processor"))
+ *
+ *  The processor only refers to the nck-api types by name and has
+ *  no dependencies of its own.
+ */
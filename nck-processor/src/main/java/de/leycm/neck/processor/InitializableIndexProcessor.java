@@ -0,0 +1,281 @@
+/**
+ * LECP-LICENSE NOTICE
+ * <br><br>
+ * This Sourcecode is under the LECP-LICENSE. <br>
+ * License at: <a href="https://github.com/leycm/leycm/blob/main/LICENSE">GITHUB</a>
+ * <br><br>
+ * Copyright (c) LeyCM <a href="mailto:leycm@proton.me">leycm@proton.me</a> l <br>
+ * Copyright (c) maintainers <br>
+ * Copyright (c) contributors
+ */
+package de.leycm.neck.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates an {@code InitializableIndex} for all classes
+ * annotated with {@code @AutoInitializable}.
+ * <p>
+ * Every processing round that finds annotated classes writes an index class right away, so it
+ * is compiled like any other source: by default
+ * {@code <package of the first annotated class>.NeckInitializableIndex}, with a number appended
+ * for classes generated by other processors in later rounds. Once processing is over the
+ * {@code META-INF/services} entry that lets the registry find them is written. The class name
+ * can be set with the {@code -Aneck.index=fully.qualified.Name} compiler option. The index
+ * creates instances through method references, so loading it involves no reflection.
+ * </p>
+ * <p>
+ * The processor claims {@code @AutoInitializable} and {@code @InitializableFactory} and is
+ * registered as an aggregating incremental processor for Gradle.
+ * </p>
+ * <p>
+ * The processor validates every annotated class: it must be a public, non-abstract
+ * {@code Initializable}, assignable to its registration class, and provide either a public
+ * static parameterless {@code @InitializableFactory} method or a public no-argument constructor.
+ * </p>
+ *
+ * @author LeyCM
+ * @since 1.3.0
+ */
+@SupportedAnnotationTypes({InitializableIndexProcessor.AUTO_INITIALIZABLE, InitializableIndexProcessor.FACTORY})
+@SupportedOptions(InitializableIndexProcessor.OPTION_INDEX)
+public final class InitializableIndexProcessor extends AbstractProcessor {
+
+    static final String AUTO_INITIALIZABLE = "de.leycm.neck.instance.AutoInitializable";
+    static final String FACTORY = "de.leycm.neck.instance.InitializableFactory";
+    static final String OPTION_INDEX = "neck.index";
+
+    private static final String INITIALIZABLE = "de.leycm.neck.instance.Initializable";
+    private static final String INDEX = "de.leycm.neck.instance.InitializableIndex";
+    private static final String DEFAULT_NAME = "NeckInitializableIndex";
+
+    private record IndexedType(String type, String key, String factory, List<String> dependencies) { }
+
+    private final List<String> written = new ArrayList<>();
+    private String baseName;
+    private boolean failed;
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+        TypeElement annotation = elements.getTypeElement(AUTO_INITIALIZABLE);
+        List<IndexedType> indexed = new ArrayList<>();
+        List<Element> originating = new ArrayList<>();
+        if (annotation != null)
+            for (Element element : round.getElementsAnnotatedWith(annotation))
+                if (index(element, indexed)) originating.add(element);
+
+        // sources generated in the last round are not processed, so each round writes its own index
+        if (!indexed.isEmpty() && !failed && !round.errorRaised())
+            writeIndex(indexed, originating);
+        if (round.processingOver() && !written.isEmpty() && !failed && !round.errorRaised())
+            writeServices();
+
+        // only the supported annotations are passed, both are read by this processor alone
+        return !annotations.isEmpty();
+    }
+
+    private boolean index(final Element element, final List<IndexedType> indexed) {
+        TypeElement initializable = elements.getTypeElement(INITIALIZABLE);
+        if (initializable == null) {
+            error(element, "%s is not on the compile classpath", INITIALIZABLE);
+            return false;
+        }
+
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "@AutoInitializable is only allowed on classes");
+            return false;
+        }
+
+        TypeElement type = (TypeElement) element;
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC))) {
+            error(type, "@AutoInitializable classes must be public, non-abstract and top-level or static");
+            return false;
+        }
+
+        TypeMirror erasure = types.erasure(type.asType());
+        if (!types.isAssignable(erasure, types.erasure(initializable.asType()))) {
+            error(type, "@AutoInitializable classes must implement %s", INITIALIZABLE);
+            return false;
+        }
+
+        AnnotationMirror mirror = annotationOf(type, AUTO_INITIALIZABLE);
+        TypeElement key = type;
+        List<String> dependencies = new ArrayList<>();
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            String name = value.getKey().getSimpleName().toString();
+            if (name.equals("value")) {
+                TypeElement declared = asTypeElement((TypeMirror) value.getValue().getValue());
+                if (!declared.getQualifiedName().contentEquals(INITIALIZABLE)) key = declared;
+            } else if (name.equals("dependsOn")) {
+                for (Object dependency : (List<?>) value.getValue().getValue())
+                    dependencies.add(asTypeElement((TypeMirror) ((AnnotationValue) dependency).getValue())
+                            .getQualifiedName().toString());
+            }
+        }
+
+        if (!types.isAssignable(erasure, types.erasure(key.asType()))) {
+            error(type, "%s is not assignable to its registration class %s", type.getQualifiedName(), key.getQualifiedName());
+            return false;
+        }
+
+        String factory = factoryOf(type, key);
+        if (factory == null) return false;
+
+        indexed.add(new IndexedType(type.getQualifiedName().toString(),
+                key.getQualifiedName().toString(), factory, dependencies));
+        return true;
+    }
+
+    private String factoryOf(final TypeElement type, final TypeElement key) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (annotationOf(method, FACTORY) == null) continue;
+
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || !modifiers.contains(Modifier.STATIC)
+                    || !method.getParameters().isEmpty()
+                    || !types.isAssignable(types.erasure(method.getReturnType()), types.erasure(key.asType()))) {
+                error(method, "@InitializableFactory methods must be public, static, parameterless and return %s",
+                        key.getQualifiedName());
+                return null;
+            }
+            return type.getQualifiedName() + "::" + method.getSimpleName();
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+            if (constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getParameters().isEmpty())
+                return type.getQualifiedName() + "::new";
+
+        error(type, "@AutoInitializable classes need a public no-argument constructor or an @InitializableFactory method");
+        return null;
+    }
+
+    private void writeIndex(final List<IndexedType> indexed, final List<Element> originating) {
+        indexed.sort(Comparator.comparing(IndexedType::type));
+
+        if (baseName == null) {
+            baseName = processingEnv.getOptions().get(OPTION_INDEX);
+            if (baseName == null || baseName.isBlank()) {
+                TypeElement element = elements.getTypeElement(indexed.get(0).type());
+                String pkg = element == null ? "" : elements.getPackageOf(element).getQualifiedName().toString();
+                baseName = pkg.isEmpty() ? DEFAULT_NAME : pkg + "." + DEFAULT_NAME;
+            }
+        }
+        String name = written.isEmpty() ? baseName : baseName + (written.size() + 1);
+
+        int dot = name.lastIndexOf('.');
+        String pkg = dot < 0 ? "" : name.substring(0, dot);
+        String simple = name.substring(dot + 1);
+
+        StringBuilder source = new StringBuilder();
+        if (!pkg.isEmpty()) source.append("package ").append(pkg).append(";\n\n");
+        // a comment instead of @Generated, which no processor would claim in the next round
+        source.append("/** Generated by ").append(getClass().getName()).append(". */\n")
+                .append("public final class ").append(simple).append(" implements ").append(INDEX).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<").append(INDEX).append(".Entry<?>> entries() {\n")
+                .append("        return java.util.List.of(");
+
+        for (int i = 0; i < indexed.size(); i++) {
+            IndexedType type = indexed.get(i);
+            source.append(i == 0 ? "\n" : ",\n")
+                    .append("                new ").append(INDEX).append(".Entry<").append(type.key()).append(">(")
+                    .append(type.key()).append(".class, ")
+                    .append(type.factory()).append(", ")
+                    .append("java.util.List.of(");
+            for (int j = 0; j < type.dependencies().size(); j++)
+                source.append(j == 0 ? "" : ", ").append(type.dependencies().get(j)).append(".class");
+            source.append("))");
+        }
+
+        source.append(");\n    }\n}\n");
+
+        try (Writer writer = filer.createSourceFile(name, originating.toArray(Element[]::new)).openWriter()) {
+            writer.write(source.toString());
+            written.add(name);
+        } catch (IOException e) {
+            failed = true;
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServices() {
+        try {
+            FileObject services = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + INDEX);
+            try (Writer writer = services.openWriter()) {
+                for (String name : written)
+                    writer.write(name + "\n");
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write the service entry of " + INDEX + ": " + e.getMessage());
+        }
+    }
+
+    private AnnotationMirror annotationOf(final Element element, final String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            Element type = mirror.getAnnotationType().asElement();
+            if (((TypeElement) type).getQualifiedName().contentEquals(annotation)) return mirror;
+        }
+        return null;
+    }
+
+    private TypeElement asTypeElement(final TypeMirror mirror) {
+        return (TypeElement) ((DeclaredType) mirror).asElement();
+    }
+
+    private void error(final Element element, final String message, final Object... args) {
+        failed = true;
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(message, args), element);
+    }
+}
@@ -54,5 +54,9 @@ dependencyResolutionManagement {
 rootProject.name = "ley-neck"
 
 include("api")
+include("bench")
+include("processor")
 
 project(":api").projectDir = file("nck-api")
+project(":bench").projectDir = file("nck-bench")
+project(":processor").projectDir = file("nck-processor")